@@ -0,0 +1,71 @@
+package WrapperCuckooSearchForFS.org.Benchmarks;
+
+import WrapperCuckooSearchForFS.org.Discreeting.BitGenome;
+import WrapperCuckooSearchForFS.org.Evaluation.CorrelationMatrix;
+import WrapperCuckooSearchForFS.org.Evaluation.DataMatrix;
+import WrapperCuckooSearchForFS.org.Evaluation.FitnessFunction;
+import org.openjdk.jmh.annotations.*;
+import org.tribuo.ImmutableFeatureMap;
+import org.tribuo.MutableDataset;
+import org.tribuo.classification.Label;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the correlation matrix of the data and reading the correlation value of a subset from it
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CorrelationBenchmark {
+    @Param({"PearsonsCorrelation", "SpearmansCorrelation", "KendallsCorrelation"})
+    public FitnessFunction.Correlation_Id correlationId;
+
+    @Param({"500"})
+    public int rows;
+
+    @Param({"50"})
+    public int features;
+
+    private DataMatrix data;
+    private CorrelationMatrix correlations;
+    private BitGenome subset;
+    private BitGenome neighbour;
+    private CorrelationMatrix.Accumulator accumulator;
+
+    @Setup
+    public void setup() {
+        MutableDataset<Label> dataset = SyntheticData.dataset(rows, features, 42);
+        data = DataMatrix.fromDataset(dataset, new ImmutableFeatureMap(dataset.getFeatureMap()));
+        correlations = CorrelationMatrix.compute(data, correlationId);
+        SplittableRandom rng = new SplittableRandom(42);
+        subset = new BitGenome(features);
+        subset.randomize(rng);
+        neighbour = subset.copy();
+        neighbour.flip(rng.nextInt(features));
+        accumulator = correlations.newAccumulator();
+        accumulator.moveTo(subset);
+    }
+
+    @Benchmark
+    public CorrelationMatrix computeMatrix() {
+        return CorrelationMatrix.compute(data, correlationId);
+    }
+
+    @Benchmark
+    public double subsetNorm() {
+        return correlations.subsetNorm(subset);
+    }
+
+    @Benchmark
+    public double singleFlipNorm() {
+        accumulator.moveTo(neighbour);
+        double norm = accumulator.norm();
+        accumulator.moveTo(subset);
+        return norm;
+    }
+}
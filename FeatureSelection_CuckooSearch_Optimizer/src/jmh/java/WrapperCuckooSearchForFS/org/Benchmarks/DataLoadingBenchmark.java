@@ -0,0 +1,49 @@
+package WrapperCuckooSearchForFS.org.Benchmarks;
+
+import WrapperCuckooSearchForFS.org.Evaluation.DataMatrix;
+import org.openjdk.jmh.annotations.*;
+import org.tribuo.ImmutableFeatureMap;
+import org.tribuo.MutableDataset;
+import org.tribuo.classification.Label;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading the data used by the correlation from a .CSV file and from an already loaded dataset
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataLoadingBenchmark {
+    @Param({"1000", "10000"})
+    public int rows;
+
+    @Param({"100"})
+    public int features;
+
+    private Path csv;
+    private MutableDataset<Label> dataset;
+    private ImmutableFeatureMap featureMap;
+
+    @Setup
+    public void setup() throws IOException {
+        csv = SyntheticData.csv(rows, features, 42);
+        dataset = SyntheticData.dataset(rows, features, 42);
+        featureMap = new ImmutableFeatureMap(dataset.getFeatureMap());
+    }
+
+    @Benchmark
+    public DataMatrix fromCSV() throws IOException {
+        return DataMatrix.fromCSV(csv);
+    }
+
+    @Benchmark
+    public DataMatrix fromDataset() {
+        return DataMatrix.fromDataset(dataset, featureMap);
+    }
+}
@@ -0,0 +1,68 @@
+package WrapperCuckooSearchForFS.org.Benchmarks;
+
+import WrapperCuckooSearchForFS.org.Discreeting.BitGenome;
+import WrapperCuckooSearchForFS.org.Evaluation.FitnessFunction;
+import WrapperCuckooSearchForFS.org.Optimizers.CuckooSearchOptimizer;
+import org.openjdk.jmh.annotations.*;
+import org.tribuo.ImmutableFeatureMap;
+import org.tribuo.MutableDataset;
+import org.tribuo.classification.Label;
+import org.tribuo.classification.ensemble.VotingCombiner;
+import org.tribuo.common.nearest.KNNModel;
+import org.tribuo.common.nearest.KNNTrainer;
+import org.tribuo.math.distance.L1Distance;
+import org.tribuo.math.neighbour.NeighboursQueryFactoryType;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single uncached fitness evaluation, that is one 10-fold cross validation of the default 1-NN learner
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FitnessBenchmark {
+    @Param({"500"})
+    public int rows;
+
+    @Param({"50"})
+    public int features;
+
+    @Param({"Tribuo", "DenseKNN"})
+    public FitnessFunction.Backend backend;
+
+    private FitnessFunction fitnessFunction;
+    private CuckooSearchOptimizer optimizer;
+    private MutableDataset<Label> dataset;
+    private ImmutableFeatureMap featureMap;
+    private BitGenome solution;
+
+    @Setup
+    public void setup() {
+        KNNTrainer<Label> trainer = new KNNTrainer<>(1, new L1Distance(), 1, new VotingCombiner(),
+                KNNModel.Backend.STREAMS, NeighboursQueryFactoryType.BRUTE_FORCE);
+        fitnessFunction = new FitnessFunction(trainer, FitnessFunction.Correlation_Id.PearsonsCorrelation);
+        fitnessFunction.setBackend(backend);
+        optimizer = new CuckooSearchOptimizer();
+        dataset = SyntheticData.dataset(rows, features, 42);
+        featureMap = new ImmutableFeatureMap(dataset.getFeatureMap());
+        solution = new BitGenome(features);
+        solution.randomize(new SplittableRandom(42));
+        // Builds the correlation matrix, the fold split and the dense data outside of the measurement
+        fitnessFunction.EvaluateSolution(optimizer, dataset, featureMap, solution);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearCache() {
+        fitnessFunction.clearCache();
+    }
+
+    @Benchmark
+    public double evaluateSolution() {
+        return fitnessFunction.EvaluateSolution(optimizer, dataset, featureMap, solution);
+    }
+}
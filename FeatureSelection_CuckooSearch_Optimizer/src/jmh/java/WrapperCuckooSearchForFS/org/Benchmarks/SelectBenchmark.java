@@ -0,0 +1,58 @@
+package WrapperCuckooSearchForFS.org.Benchmarks;
+
+import WrapperCuckooSearchForFS.org.Discreeting.TransferFunction;
+import WrapperCuckooSearchForFS.org.Evaluation.FitnessFunction;
+import WrapperCuckooSearchForFS.org.Optimizers.CuckooSearchOptimizer;
+import org.openjdk.jmh.annotations.*;
+import org.tribuo.MutableDataset;
+import org.tribuo.SelectedFeatureSet;
+import org.tribuo.classification.Label;
+import org.tribuo.classification.ensemble.VotingCombiner;
+import org.tribuo.common.nearest.KNNModel;
+import org.tribuo.common.nearest.KNNTrainer;
+import org.tribuo.math.distance.L1Distance;
+import org.tribuo.math.neighbour.NeighboursQueryFactoryType;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures an end-to-end search on synthetic data of growing numbers of rows and features
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class SelectBenchmark {
+    @Param({"200", "1000"})
+    public int rows;
+
+    @Param({"20", "100"})
+    public int features;
+
+    private MutableDataset<Label> dataset;
+
+    @Setup
+    public void setup() {
+        dataset = SyntheticData.dataset(rows, features, 42);
+    }
+
+    @Benchmark
+    public SelectedFeatureSet select() {
+        KNNTrainer<Label> trainer = new KNNTrainer<>(1, new L1Distance(), 1, new VotingCombiner(),
+                KNNModel.Backend.STREAMS, NeighboursQueryFactoryType.BRUTE_FORCE);
+        CuckooSearchOptimizer optimizer = new CuckooSearchOptimizer(trainer,
+                FitnessFunction.Correlation_Id.PearsonsCorrelation,
+                TransferFunction.V2,
+                10,
+                2d,
+                2d,
+                0.2d,
+                0.2d,
+                1.5d,
+                3,
+                12345);
+        return optimizer.select(dataset);
+    }
+}
@@ -0,0 +1,110 @@
+package WrapperCuckooSearchForFS.org.Benchmarks;
+
+import org.tribuo.MutableDataset;
+import org.tribuo.classification.Label;
+import org.tribuo.classification.LabelFactory;
+import org.tribuo.impl.ArrayExample;
+import org.tribuo.provenance.SimpleDataSourceProvenance;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Generates reproducible classification data where only the first few features carry the class signal
+ */
+final class SyntheticData {
+    private static final int INFORMATIVE_FEATURES = 3;
+
+    private SyntheticData() { }
+
+    /**
+     * This method is used to draw the feature values of the synthetic data
+     * @param rows The number of examples
+     * @param features The number of features
+     * @param seed The seed of the random stream
+     * @return The row-major values
+     */
+    static double[][] values(int rows, int features, long seed) {
+        SplittableRandom rng = new SplittableRandom(seed);
+        double[][] values = new double[rows][features];
+        for (double[] row : values) {
+            for (int c = 0; c < features; c++) {
+                row[c] = Math.round(rng.nextDouble(-1, 1) * 1e4) / 1e4;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @param row The feature values of an example
+     * @return The class of the example
+     */
+    static String label(double[] row) {
+        double signal = 0;
+        for (int c = 0; c < Math.min(INFORMATIVE_FEATURES, row.length); c++) {
+            signal += row[c];
+        }
+        return signal > 0 ? "A" : "B";
+    }
+
+    /**
+     * @param index The feature index
+     * @return A feature name whose alphabetical order matches the index order
+     */
+    static String featureName(int index) {
+        return String.format("F%06d", index);
+    }
+
+    /**
+     * This method is used to build a Tribuo dataset from the synthetic data
+     * @param rows The number of examples
+     * @param features The number of features
+     * @param seed The seed of the random stream
+     * @return The dataset
+     */
+    static MutableDataset<Label> dataset(int rows, int features, long seed) {
+        LabelFactory labelFactory = new LabelFactory();
+        MutableDataset<Label> dataset = new MutableDataset<>(new SimpleDataSourceProvenance("synthetic", labelFactory), labelFactory);
+        String[] names = new String[features];
+        for (int c = 0; c < features; c++) {
+            names[c] = featureName(c);
+        }
+        for (double[] row : values(rows, features, seed)) {
+            dataset.add(new ArrayExample<>(labelFactory.generateOutput(label(row)), names, row));
+        }
+        return dataset;
+    }
+
+    /**
+     * This method is used to write the synthetic data as a .CSV file with the class in the last column
+     * @param rows The number of examples
+     * @param features The number of features
+     * @param seed The seed of the random stream
+     * @return The path of the temporary file, deleted on exit
+     * @throws IOException If the file cannot be written
+     */
+    static Path csv(int rows, int features, long seed) throws IOException {
+        Path path = Files.createTempFile("synthetic", ".csv");
+        path.toFile().deleteOnExit();
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            for (int c = 0; c < features; c++) {
+                writer.write(featureName(c));
+                writer.write(',');
+            }
+            writer.write("Class");
+            writer.newLine();
+            for (double[] row : values(rows, features, seed)) {
+                for (double value : row) {
+                    writer.write(Double.toString(value));
+                    writer.write(',');
+                }
+                writer.write(label(row));
+                writer.newLine();
+            }
+        }
+        return path;
+    }
+}
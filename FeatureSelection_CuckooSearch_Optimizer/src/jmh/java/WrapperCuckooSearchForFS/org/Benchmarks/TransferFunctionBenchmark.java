@@ -0,0 +1,46 @@
+package WrapperCuckooSearchForFS.org.Benchmarks;
+
+import WrapperCuckooSearchForFS.org.Discreeting.TransferFunction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the binarisation of genes by every transfer function
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransferFunctionBenchmark {
+    private static final int GENES = 1024;
+
+    @Param({"V1", "V2", "V3", "V4", "S1", "S2", "S3", "S4"})
+    public TransferFunction transferFunction;
+
+    private double[] inputs;
+
+    @Setup
+    public void setup() {
+        // Genes are 0 or 1 shifted by a levy step or an abandon nest difference
+        SplittableRandom rng = new SplittableRandom(42);
+        double[] offsets = {0, 2 * Math.pow(2, -2), 1.5, -1.5, 2 * Math.pow(50, -2)};
+        inputs = new double[GENES];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = rng.nextInt(2) + offsets[rng.nextInt(offsets.length)];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GENES)
+    public double applyAsDouble() {
+        double sum = 0;
+        for (double input : inputs) {
+            sum += transferFunction.applyAsDouble(input);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,341 @@
+package WrapperCuckooSearchForFS.org.Discreeting;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A binary solution packed into 64 bit words, bit {@code i} is set when the feature with id {@code i} is selected
+ * <p>
+ * The operators work a word at a time and write into existing genomes so evolving a nest does not allocate.
+ */
+public final class BitGenome {
+    private final int length;
+    private final long[] words;
+
+    /**
+     * Constructs a genome with every feature unselected
+     * @param length The number of features
+     */
+    public BitGenome(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("The length must be non-negative, found " + length);
+        }
+        this.length = length;
+        this.words = new long[(length + 63) >>> 6];
+    }
+
+    /**
+     * This method is used to pack the given 0/1 solution
+     * @param solution The subset of features where 1 marks a selected feature
+     * @return The packed genome
+     */
+    public static BitGenome of(int[] solution) {
+        BitGenome genome = new BitGenome(solution.length);
+        for (int i = 0; i < solution.length; i++) {
+            if (solution[i] == 1) {
+                genome.words[i >>> 6] |= 1L << i;
+            }
+        }
+        return genome;
+    }
+
+    /**
+     * This method is used to build a genome from its packed words
+     * @param length The number of features
+     * @param words The packed bits, bits beyond the length are ignored
+     * @return The genome holding a copy of the words
+     */
+    public static BitGenome fromWords(int length, long[] words) {
+        BitGenome genome = new BitGenome(length);
+        System.arraycopy(words, 0, genome.words, 0, genome.words.length);
+        genome.clearTail();
+        return genome;
+    }
+
+    /**
+     * @return The number of features
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @param index The feature id
+     * @return True if the feature is selected
+     */
+    public boolean get(int index) {
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * @param index The feature id
+     * @param selected True to select the feature
+     */
+    public void set(int index, boolean selected) {
+        if (selected) {
+            words[index >>> 6] |= 1L << index;
+        } else {
+            words[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    /**
+     * @param index The feature id to select or unselect
+     */
+    public void flip(int index) {
+        words[index >>> 6] ^= 1L << index;
+    }
+
+    /**
+     * @return The number of selected features
+     */
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @param other A genome of the same length
+     * @return The number of features selected in exactly one of the two genomes
+     */
+    public int distance(BitGenome other) {
+        checkLength(other);
+        int count = 0;
+        for (int w = 0; w < words.length; w++) {
+            count += Long.bitCount(words[w] ^ other.words[w]);
+        }
+        return count;
+    }
+
+    /**
+     * @param from The first feature id to consider
+     * @return The id of the first selected feature at or after the given one, or -1 if there is none
+     */
+    public int nextSetBit(int from) {
+        if (from >= length) {
+            return -1;
+        }
+        int w = from >>> 6;
+        long word = words[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++w == words.length) {
+                return -1;
+            }
+            word = words[w];
+        }
+    }
+
+    /**
+     * @param other A genome of the same length
+     * @param from The first feature id to consider
+     * @return The id of the first feature at or after the given one on which the genomes differ, or -1 if there is none
+     */
+    public int nextDifferentBit(BitGenome other, int from) {
+        checkLength(other);
+        if (from >= length) {
+            return -1;
+        }
+        int w = from >>> 6;
+        long word = (words[w] ^ other.words[w]) & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++w == words.length) {
+                return -1;
+            }
+            word = words[w] ^ other.words[w];
+        }
+    }
+
+    /**
+     * @return The ids of the selected features in increasing order
+     */
+    public int[] selectedIndices() {
+        int[] indices = new int[cardinality()];
+        int next = 0;
+        for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+            indices[next++] = i;
+        }
+        return indices;
+    }
+
+    /**
+     * @return The genome as a 0/1 array
+     */
+    public int[] toArray() {
+        int[] solution = new int[length];
+        for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+            solution[i] = 1;
+        }
+        return solution;
+    }
+
+    /**
+     * @return A copy of the packed words
+     */
+    public long[] toWords() {
+        return words.clone();
+    }
+
+    /**
+     * @return An independent copy of this genome
+     */
+    public BitGenome copy() {
+        return fromWords(length, words);
+    }
+
+    /**
+     * @param other A genome of the same length whose bits replace the bits of this genome
+     */
+    public void copyFrom(BitGenome other) {
+        checkLength(other);
+        System.arraycopy(other.words, 0, words, 0, words.length);
+    }
+
+    /**
+     * This method is used to select every feature with probability one half
+     * @param rng The random stream to draw from
+     */
+    public void randomize(SplittableRandom rng) {
+        for (int w = 0; w < words.length; w++) {
+            words[w] = rng.nextLong();
+        }
+        clearTail();
+    }
+
+    /**
+     * This method is used to select every feature independently with its own probability
+     * @param selectionProbabilities The probability of selecting each feature
+     * @param rng The random stream to draw from
+     */
+    public void randomize(double[] selectionProbabilities, SplittableRandom rng) {
+        if (selectionProbabilities.length != length) {
+            throw new IllegalArgumentException("Expected " + length + " probabilities, found " + selectionProbabilities.length);
+        }
+        Arrays.fill(words, 0);
+        for (int i = 0; i < length; i++) {
+            if (rng.nextDouble() < selectionProbabilities[i]) {
+                words[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    /**
+     * The simple mutation operator applied in place, every bit flips independently with the given rate, the gaps
+     * between flipped bits are drawn from the geometric distribution so the cost follows the number of flips
+     * @param mutationRate The probability of flipping each bit
+     * @param rng The random stream to draw from
+     */
+    public void mutate(double mutationRate, SplittableRandom rng) {
+        if (mutationRate <= 0) {
+            return;
+        }
+        if (mutationRate >= 1) {
+            for (int w = 0; w < words.length; w++) {
+                words[w] = ~words[w];
+            }
+            clearTail();
+            return;
+        }
+        double logOfMiss = Math.log1p(-mutationRate);
+        long index = -1;
+        while (true) {
+            double gap = Math.floor(Math.log(1 - rng.nextDouble()) / logOfMiss);
+            if (gap >= length - 1 - index) {
+                return;
+            }
+            index += 1 + (long) gap;
+            flip((int) index);
+        }
+    }
+
+    /**
+     * This method is used to apply the transfer function to every gene shifted by the given offset, as a gene is
+     * either 0 or 1 the function is only evaluated twice
+     * @param transferFunction The transfer function to convert continuous values to binary ones
+     * @param offset The value added to every gene
+     * @param out The genome receiving the result, may be this genome
+     */
+    public void transfer(DoubleUnaryOperator transferFunction, double offset, BitGenome out) {
+        checkLength(out);
+        boolean whenUnselected = transferFunction.applyAsDouble(offset) == 1;
+        boolean whenSelected = transferFunction.applyAsDouble(1 + offset) == 1;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            out.words[w] = (whenSelected ? word : 0) | (whenUnselected ? ~word : 0);
+        }
+        out.clearTail();
+    }
+
+    /**
+     * This method is used to apply the abandon nest update {@code T(x + delta * (a - b))} bitwise, the function is
+     * evaluated once for each of the eight combinations of the three genes
+     * @param transferFunction The transfer function to convert continuous values to binary ones
+     * @param delta The delta that is used in the abandon nest function
+     * @param first The genome a
+     * @param second The genome b
+     * @param out The genome receiving the result, may be any of the inputs
+     */
+    public void abandonNest(DoubleUnaryOperator transferFunction, double delta, BitGenome first, BitGenome second, BitGenome out) {
+        checkLength(first);
+        checkLength(second);
+        checkLength(out);
+        int table = 0;
+        for (int combination = 0; combination < 8; combination++) {
+            int x = combination >>> 2;
+            int a = (combination >>> 1) & 1;
+            int b = combination & 1;
+            if (transferFunction.applyAsDouble(x + delta * (a - b)) == 1) {
+                table |= 1 << combination;
+            }
+        }
+        for (int w = 0; w < words.length; w++) {
+            long x = words[w];
+            long a = first.words[w];
+            long b = second.words[w];
+            long result = 0;
+            for (int combination = 0; combination < 8; combination++) {
+                if ((table & (1 << combination)) != 0) {
+                    result |= ((combination & 4) != 0 ? x : ~x) & ((combination & 2) != 0 ? a : ~a) & ((combination & 1) != 0 ? b : ~b);
+                }
+            }
+            out.words[w] = result;
+        }
+        out.clearTail();
+    }
+
+    private void clearTail() {
+        if ((length & 63) != 0) {
+            words[words.length - 1] &= -1L >>> (64 - (length & 63));
+        }
+    }
+
+    private void checkLength(BitGenome other) {
+        if (other.length != length) {
+            throw new IllegalArgumentException("The genomes have different lengths, " + length + " and " + other.length);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof BitGenome other && length == other.length && Arrays.equals(words, other.words));
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * length + Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        return "BitGenome(length=" + length + ", selected=" + cardinality() + ")";
+    }
+}
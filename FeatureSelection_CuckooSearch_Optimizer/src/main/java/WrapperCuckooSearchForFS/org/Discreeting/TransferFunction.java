@@ -1,14 +1,30 @@
 package WrapperCuckooSearchForFS.org.Discreeting;
 
+import org.apache.commons.math3.special.Erf;
 import org.ojalgo.function.special.ErrorFunction;
 
 import java.util.function.DoubleUnaryOperator;
 
 /**
  * Enumeration that contains the types of transfer functions in which they are used to define the type of transfer function
+ * <p>
+ * Every function crosses 0.5 at a known point, the V-shaped ones at {@code ±threshold} and the S-shaped ones at 0, so
+ * a value is binarised with a single comparison. Values within {@link #EXACT_BAND} of the threshold are sent to the
+ * function itself, which keeps the result identical to it despite the rounding of the closed form thresholds.
  */
 public enum TransferFunction implements DoubleUnaryOperator {
-        V1, V2, V3, V4, S1, S2, S3, S4;
+        V1(2 / Math.sqrt(Math.PI) * Erf.erfInv(0.5)),
+        V2(Math.atan(0.5)),
+        V3(1),
+        V4(2 / Math.PI),
+        S1(0), S2(0), S3(0), S4(0);
+
+        private static final double EXACT_BAND = 1e-9;
+        private final double threshold;
+
+        TransferFunction(double threshold) {
+                this.threshold = threshold;
+        }
 
         /**
          * Applies this operator to the given value.
@@ -18,16 +34,77 @@ public enum TransferFunction implements DoubleUnaryOperator {
          */
         @Override
         public double applyAsDouble(double value) {
+                return isSelected(value) ? 1 : 0;
+        }
+
+        /**
+         * This method is used to binarise a value by comparing it with the point where the function crosses 0.5
+         * @param value the operand as continuous value
+         * @return True if the function maps the value to 1
+         */
+        public boolean isSelected(double value) {
+                double margin = switch (this) {
+                        case V1, V4 -> Math.abs(value) - threshold;
+                        // tan is periodic, the threshold only holds on its central branch
+                        case V2 -> Math.abs(value) < Math.PI / 2 - EXACT_BAND ? Math.abs(value) - threshold : 0;
+                        // |x / (1 + x^2)| only reaches 0.5 at |x| = 1 and leaves it quadratically, so is rounded
+                        // to 0.5 much further from the threshold than the other functions
+                        case V3 -> -Math.pow(Math.abs(value) - threshold, 2);
+                        case S1, S2, S3, S4 -> value - threshold;
+                };
+                if (Math.abs(margin) > EXACT_BAND) {
+                        return margin > 0;
+                }
+                return output(value) >= 0.5;
+        }
+
+        /**
+         * This method is used to binarise every gene of a genome shifted by the given offset, as a gene is either 0
+         * or 1 each outcome is only computed once
+         * @param in The genes
+         * @param offset The value added to every gene
+         * @param out The array receiving the binary genes, may be the input
+         */
+        public void apply(int[] in, double offset, int[] out) {
+                if (out.length < in.length) {
+                        throw new IllegalArgumentException("The output holds " + out.length + " genes, expected at least " + in.length);
+                }
+                int whenUnselected = isSelected(offset) ? 1 : 0;
+                int whenSelected = isSelected(1 + offset) ? 1 : 0;
+                for (int i = 0; i < in.length; i++) {
+                        out[i] = switch (in[i]) {
+                                case 0 -> whenUnselected;
+                                case 1 -> whenSelected;
+                                default -> isSelected(in[i] + offset) ? 1 : 0;
+                        };
+                }
+        }
+
+        /**
+         * This method is used to binarise every gene of a genome shifted by the given offset, see
+         * {@link BitGenome#transfer(DoubleUnaryOperator, double, BitGenome)}
+         * @param in The genes
+         * @param offset The value added to every gene
+         * @param out The genome receiving the result, may be the input
+         */
+        public void apply(BitGenome in, double offset, BitGenome out) {
+                in.transfer(this, offset, out);
+        }
+
+        /**
+         * @param value the operand as continuous value
+         * @return the continuous output of the function
+         */
+        private double output(double value) {
                 return switch (this) {
-                        case V1 -> Math.abs(ErrorFunction.erf(Math.sqrt(Math.PI) / 2 * value)) >= 0.5 ? 1 : 0;
-                        case V2 -> Math.abs(Math.tan(value)) >= 0.5 ? 1 : 0;
-                        case V3 -> Math.abs(value / Math.abs(1 + Math.pow(value, 2))) >= 0.5 ? 1 : 0;
-                        case V4 -> Math.abs(2 / Math.PI * Math.atan(Math.PI / 2 * value)) >= 0.5 ? 1 : 0;
-                        case S1 -> 1 / (1 + Math.pow(Math.E, - 2 * value)) >= 0.5 ? 1 : 0;
-                        case S2 -> 1 / (1 + Math.pow(Math.E, - value)) >= 0.5 ? 1 : 0;
-                        case S3 -> 1 / (1 + Math.pow(Math.E, - value / 2)) >= 0.5 ? 1 : 0;
-                        case S4 -> 1 / (1 + Math.pow(Math.E, - value / 3)) >= 0.5 ? 1 : 0;
+                        case V1 -> Math.abs(ErrorFunction.erf(Math.sqrt(Math.PI) / 2 * value));
+                        case V2 -> Math.abs(Math.tan(value));
+                        case V3 -> Math.abs(value / Math.abs(1 + Math.pow(value, 2)));
+                        case V4 -> Math.abs(2 / Math.PI * Math.atan(Math.PI / 2 * value));
+                        case S1 -> 1 / (1 + Math.pow(Math.E, - 2 * value));
+                        case S2 -> 1 / (1 + Math.pow(Math.E, - value));
+                        case S3 -> 1 / (1 + Math.pow(Math.E, - value / 2));
+                        case S4 -> 1 / (1 + Math.pow(Math.E, - value / 3));
                 };
         }
 }
-
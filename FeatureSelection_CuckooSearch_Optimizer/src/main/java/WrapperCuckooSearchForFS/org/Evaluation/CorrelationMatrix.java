@@ -0,0 +1,224 @@
+package WrapperCuckooSearchForFS.org.Evaluation;
+
+import WrapperCuckooSearchForFS.org.Discreeting.BitGenome;
+import org.apache.commons.math3.stat.correlation.KendallsCorrelation;
+import org.apache.commons.math3.stat.correlation.PearsonsCorrelation;
+import org.apache.commons.math3.stat.ranking.NaturalRanking;
+
+import java.util.stream.IntStream;
+
+/**
+ * The absolute feature-by-feature correlation matrix of the entire data, computed once per run
+ * <p>
+ * The absolute values are stored in fixed point so the column sums of a subset are exact and do not depend on the
+ * order in which features were added or removed, which keeps incremental and from-scratch norms identical. Only the
+ * pairs above the diagonal are stored, row after row, the diagonal always holds 1.
+ */
+public final class CorrelationMatrix {
+    private static final double SCALE = 1 << 24;
+    private static final int UNDEFINED = -1;
+    private final int size;
+    private final int[] values;
+
+    private CorrelationMatrix(int size, int[] values) {
+        this.size = size;
+        this.values = values;
+    }
+
+    /**
+     * This method is used to compute the correlation between every pair of features in parallel
+     * @param data The data matrix where each column is a feature
+     * @param correlation_id The function to be used to compute the correlation
+     * @return The correlation matrix of the given data
+     */
+    public static CorrelationMatrix compute(DataMatrix data, FitnessFunction.Correlation_Id correlation_id) {
+        int size = data.columns();
+        double[][] columns = new double[size][];
+        IntStream.range(0, size).parallel().forEach(c -> columns[c] = data.column(c));
+        if (correlation_id == FitnessFunction.Correlation_Id.SpearmansCorrelation) {
+            NaturalRanking ranking = new NaturalRanking();
+            IntStream.range(0, size).parallel().forEach(c -> columns[c] = ranking.rank(columns[c]));
+        }
+        int[] values = new int[checkedPairs(size)];
+        IntStream.range(0, size).parallel().forEach(i -> {
+            int offset = pairIndex(size, i, i + 1);
+            for (int j = i + 1; j < size; j++) {
+                double correlation = switch (correlation_id) {
+                    case PearsonsCorrelation, SpearmansCorrelation -> new PearsonsCorrelation().correlation(columns[i], columns[j]);
+                    case KendallsCorrelation -> new KendallsCorrelation().correlation(columns[i], columns[j]);
+                };
+                values[offset + j - i - 1] = quantise(correlation);
+            }
+        });
+        return new CorrelationMatrix(size, values);
+    }
+
+    /**
+     * This method is used to build the matrix from correlations computed elsewhere, such as running statistics
+     * @param size The number of features
+     * @param correlations The correlation of features {@code i < j} at index {@link #pairIndex(int, int, int)}, NaN if
+     *                     undefined
+     * @return The correlation matrix of the given correlations
+     */
+    static CorrelationMatrix fromCorrelations(int size, double[] correlations) {
+        if (correlations.length != checkedPairs(size)) {
+            throw new IllegalArgumentException("Expected " + checkedPairs(size) + " correlations for " + size + " features, found " + correlations.length);
+        }
+        int[] values = new int[correlations.length];
+        IntStream.range(0, values.length).parallel().forEach(index -> values[index] = quantise(correlations[index]));
+        return new CorrelationMatrix(size, values);
+    }
+
+    /**
+     * This method is used to count the pairs above the diagonal of a matrix of the given size
+     * @param size The number of features
+     * @return The number of pairs {@code i < j}
+     * @throws IllegalArgumentException If the pairs do not fit in a single array
+     */
+    static int checkedPairs(int size) {
+        long pairs = (long) size * (size - 1) / 2;
+        if (pairs > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("The data has " + size + " features whose " + pairs + " pairs do not fit in a single array");
+        }
+        return (int) Math.max(pairs, 0);
+    }
+
+    /**
+     * This method is used to locate a pair above the diagonal in a matrix whose size passed {@link #checkedPairs(int)}
+     * @param size The number of features
+     * @param i The first feature
+     * @param j The second feature, greater than the first one
+     * @return The index of the pair, rows are stored one after the other
+     */
+    static int pairIndex(int size, int i, int j) {
+        return (int) ((long) i * (2L * size - i - 1) / 2 + (j - i - 1));
+    }
+
+    private static int quantise(double correlation) {
+        return Double.isNaN(correlation) ? UNDEFINED : (int) Math.round(Math.abs(correlation) * SCALE);
+    }
+
+    /**
+     * @return The number of features of the matrix
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * This method is used to compute the maximum absolute column sum of the sub-matrix of the selected features
+     * divided by the number of selected features
+     * @param solution The current subset of features
+     * @return The correlation value of the given subset, 0 if the subset is empty
+     */
+    public double subsetNorm(BitGenome solution) {
+        Accumulator accumulator = newAccumulator();
+        accumulator.moveTo(solution);
+        return accumulator.norm();
+    }
+
+    /**
+     * @return An accumulator holding the empty subset
+     */
+    public Accumulator newAccumulator() {
+        return new Accumulator();
+    }
+
+    /**
+     * Holds the column sums of a subset so single features can be added or removed in O(d)
+     */
+    public final class Accumulator {
+        private final long[] columnSums = new long[size];
+        private final BitGenome selected = new BitGenome(size);
+        private int count;
+        private int undefinedPairs;
+
+        private Accumulator() { }
+
+        /**
+         * This method is used to add the given feature to the subset or remove it if it is already selected
+         * @param feature The index of the feature to flip
+         */
+        public void flip(int feature) {
+            boolean adding = !selected.get(feature);
+            selected.flip(feature);
+            count += adding ? 1 : -1;
+            int sign = adding ? 1 : -1;
+            // Column of the feature above the diagonal, one row further down is size - j - 2 entries further
+            int index = feature - 1;
+            for (int j = 0; j < feature; j++) {
+                add(j, values[index], sign);
+                index += size - j - 2;
+            }
+            columnSums[feature] += sign * (long) SCALE;
+            // Row of the feature right of the diagonal, stored contiguously
+            index = pairIndex(size, feature, feature + 1);
+            for (int j = feature + 1; j < size; j++) {
+                add(j, values[index++], sign);
+            }
+        }
+
+        private void add(int column, int value, int sign) {
+            if (value == UNDEFINED) {
+                // A NaN correlation (e.g. a constant column) makes the norm of every subset holding the pair NaN
+                if (selected.get(column)) {
+                    undefinedPairs += sign;
+                }
+            } else {
+                columnSums[column] += (long) sign * value;
+            }
+        }
+
+        /**
+         * @param matrix A correlation matrix
+         * @return True if this accumulator sums the columns of the given matrix
+         */
+        public boolean belongsTo(CorrelationMatrix matrix) {
+            return CorrelationMatrix.this == matrix;
+        }
+
+        /**
+         * @param solution A subset of the features of the matrix
+         * @return The number of features that have to be flipped to reach the given subset
+         */
+        public int distanceTo(BitGenome solution) {
+            return selected.distance(solution);
+        }
+
+        /**
+         * This method is used to flip every feature on which the accumulated subset and the given one differ
+         * @param solution The subset to reach
+         */
+        public void moveTo(BitGenome solution) {
+            for (int feature = selected.nextDifferentBit(solution, 0); feature >= 0; feature = selected.nextDifferentBit(solution, feature + 1)) {
+                flip(feature);
+            }
+        }
+
+        /**
+         * @return The number of selected features
+         */
+        public int count() {
+            return count;
+        }
+
+        /**
+         * @return The correlation value of the current subset, 0 if the subset is empty
+         */
+        public double norm() {
+            if (count == 0) {
+                return 0;
+            }
+            if (undefinedPairs > 0) {
+                return Double.NaN;
+            }
+            long max = 0;
+            for (int j = selected.nextSetBit(0); j >= 0; j = selected.nextSetBit(j + 1)) {
+                if (columnSums[j] > max) {
+                    max = columnSums[j];
+                }
+            }
+            return max / SCALE / count;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package WrapperCuckooSearchForFS.org.Evaluation;
+
+import org.tribuo.Dataset;
+import org.tribuo.Example;
+import org.tribuo.Feature;
+import org.tribuo.ImmutableFeatureMap;
+import org.tribuo.classification.Label;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Dense numeric data stored column by column in a single primitive array, column {@code c} occupies the indices
+ * {@code [c * rows, (c + 1) * rows)}
+ */
+public final class DataMatrix {
+    private static final long WINDOW_SIZE = 1L << 28;
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = new double[23];
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final int rows;
+    private final int columns;
+    private final double[] values;
+    private final String[] featureNames;
+
+    private DataMatrix(int rows, int columns, double[] values, String[] featureNames) {
+        this.rows = rows;
+        this.columns = columns;
+        this.values = values;
+        this.featureNames = featureNames;
+    }
+
+    /**
+     * This method is used to copy the feature values of the given dataset, the column of each feature is its id in the feature map
+     * @param dataset The dataset that is already loaded by Tribuo
+     * @param Fmap The dataset feature map
+     * @return The column-major matrix of the dataset
+     */
+    public static DataMatrix fromDataset(Dataset<Label> dataset, ImmutableFeatureMap Fmap) {
+        int rows = dataset.size();
+        double[] values = new double[checkedSize(rows, Fmap.size())];
+        int row = 0;
+        for (Example<Label> example : dataset) {
+            for (Feature feature : example) {
+                int column = Fmap.getID(feature.getName());
+                if (column >= 0) {
+                    values[column * rows + row] = feature.getValue();
+                }
+            }
+            row++;
+        }
+        return new DataMatrix(rows, Fmap.size(), values, null);
+    }
+
+    /**
+     * This method is used to stream the given .CSV file through a memory mapped channel without materialising its lines,
+     * the first line is the header and the last column is the class which is skipped
+     * @param dataPath The URL of the .CSV data file
+     * @return The column-major matrix of the given data
+     * @throws IOException If the file cannot be read
+     */
+    public static DataMatrix fromCSV(Path dataPath) throws IOException {
+        try (FileChannel channel = FileChannel.open(dataPath, StandardOpenOption.READ)) {
+            ShapeScanner shape = new ShapeScanner();
+            scan(channel, shape);
+            int columns = Math.max(shape.header.length - 1, 0);
+            String[] featureNames = new String[columns];
+            for (int c = 0; c < columns; c++) {
+                featureNames[c] = unquote(shape.header[c].trim());
+            }
+            ValueParser parser = new ValueParser(shape.rows, columns);
+            scan(channel, parser);
+            return new DataMatrix(shape.rows, columns, parser.values, featureNames);
+        }
+    }
+
+    /**
+     * This method is used to reorder the columns so the column of each feature is its id in the given feature map,
+     * it returns this matrix when it was built from a dataset
+     * @param Fmap The dataset feature map
+     * @return The matrix whose columns follow the feature ids, features missing from the file are all zero
+     */
+    public DataMatrix alignTo(ImmutableFeatureMap Fmap) {
+        if (featureNames == null) {
+            return this;
+        }
+        double[] aligned = new double[checkedSize(rows, Fmap.size())];
+        for (int c = 0; c < columns; c++) {
+            int column = Fmap.getID(featureNames[c]);
+            if (column >= 0) {
+                System.arraycopy(values, c * rows, aligned, column * rows, rows);
+            }
+        }
+        return new DataMatrix(rows, Fmap.size(), aligned, null);
+    }
+
+    /**
+     * @return The number of examples
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * @return The number of features
+     */
+    public int columns() {
+        return columns;
+    }
+
+    /**
+     * @param row The example index
+     * @param column The feature index
+     * @return The value of the feature for the example
+     */
+    public double get(int row, int column) {
+        return values[column * rows + row];
+    }
+
+    /**
+     * @param column The feature index
+     * @return A copy of the values of the feature
+     */
+    public double[] column(int column) {
+        double[] copy = new double[rows];
+        System.arraycopy(values, column * rows, copy, 0, rows);
+        return copy;
+    }
+
+    private static int checkedSize(int rows, int columns) {
+        long size = (long) rows * columns;
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("The data has " + rows + " rows and " + columns + " columns which do not fit in a single array");
+        }
+        return (int) size;
+    }
+
+    private static String unquote(String name) {
+        return name.length() >= 2 && name.startsWith("\"") && name.endsWith("\"") ? name.substring(1, name.length() - 1) : name;
+    }
+
+    /**
+     * This method is used to feed every byte of the file to the given consumer, mapping at most WINDOW_SIZE bytes at once
+     */
+    private static void scan(FileChannel channel, ByteConsumer consumer) throws IOException {
+        long size = channel.size();
+        for (long position = 0; position < size; position += WINDOW_SIZE) {
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, size - position));
+            while (window.hasRemaining()) {
+                consumer.accept(window.get());
+            }
+        }
+        consumer.end();
+    }
+
+    private interface ByteConsumer {
+        void accept(byte b);
+
+        void end();
+    }
+
+    /**
+     * Reads the header and counts the non-empty data lines
+     */
+    private static final class ShapeScanner implements ByteConsumer {
+        private final ByteArrayOutputStream headerLine = new ByteArrayOutputStream();
+        private String[] header;
+        private boolean inData;
+        private boolean lineHasContent;
+        private int rows;
+
+        @Override
+        public void accept(byte b) {
+            if (!inData) {
+                if (b == '\n') {
+                    readHeader();
+                } else if (b != '\r') {
+                    headerLine.write(b);
+                }
+            } else if (b == '\n') {
+                endLine();
+            } else if (b != '\r') {
+                lineHasContent = true;
+            }
+        }
+
+        @Override
+        public void end() {
+            if (!inData) {
+                readHeader();
+            }
+            endLine();
+        }
+
+        private void readHeader() {
+            String line = headerLine.toString(StandardCharsets.UTF_8);
+            header = line.isEmpty() ? new String[0] : line.split(",", -1);
+            inData = true;
+        }
+
+        private void endLine() {
+            if (lineHasContent) {
+                rows++;
+                lineHasContent = false;
+            }
+        }
+    }
+
+    /**
+     * Parses the fields of the data lines straight into the column-major array, reusing a single token buffer
+     */
+    private static final class ValueParser implements ByteConsumer {
+        private final int rows;
+        private final int columns;
+        private final double[] values;
+        private byte[] token = new byte[64];
+        private int tokenLength;
+        private boolean inData;
+        private int row;
+        private int column;
+
+        private ValueParser(int rows, int columns) {
+            this.rows = rows;
+            this.columns = columns;
+            this.values = new double[checkedSize(rows, columns)];
+        }
+
+        @Override
+        public void accept(byte b) {
+            if (!inData) {
+                inData = b == '\n';
+            } else if (b == ',') {
+                endField();
+                column++;
+            } else if (b == '\n') {
+                endLine();
+            } else if (b != '\r') {
+                if (tokenLength == token.length) {
+                    byte[] larger = new byte[token.length * 2];
+                    System.arraycopy(token, 0, larger, 0, tokenLength);
+                    token = larger;
+                }
+                token[tokenLength++] = b;
+            }
+        }
+
+        @Override
+        public void end() {
+            if (inData) {
+                endLine();
+            }
+        }
+
+        private void endLine() {
+            if (column > 0 || tokenLength > 0) {
+                endField();
+                row++;
+            }
+            column = 0;
+        }
+
+        private void endField() {
+            if (column < columns && row < rows) {
+                try {
+                    values[column * rows + row] = parse(token, tokenLength);
+                } catch (NumberFormatException e) {
+                    throw new NumberFormatException("Invalid value at data row " + row + ", column " + column + ": " + e.getMessage());
+                }
+            }
+            tokenLength = 0;
+        }
+    }
+
+    /**
+     * This method is used to parse a plain decimal without allocating, anything else such as exponents is handed to
+     * {@link Double#parseDouble(String)}, the fast path is exact since both the mantissa and the power of ten are exact doubles
+     * @param token The bytes of the field
+     * @param length The number of bytes of the field
+     * @return The parsed value
+     */
+    static double parse(byte[] token, int length) {
+        int start = 0;
+        int end = length;
+        while (start < end && (token[start] == ' ' || token[start] == '"')) {
+            start++;
+        }
+        while (end > start && (token[end - 1] == ' ' || token[end - 1] == '"')) {
+            end--;
+        }
+        int i = start;
+        boolean negative = false;
+        if (i < end && (token[i] == '-' || token[i] == '+')) {
+            negative = token[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; i < end; i++) {
+            byte b = token[i];
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+                if (mantissa >= MAX_EXACT_MANTISSA) {
+                    break;
+                }
+            } else if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                break;
+            }
+        }
+        if (i == end && digits > 0 && fractionDigits < POWERS_OF_TEN.length) {
+            double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(new String(token, start, end - start, StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,82 @@
+package WrapperCuckooSearchForFS.org.Evaluation;
+
+import org.tribuo.Dataset;
+import org.tribuo.Example;
+import org.tribuo.ImmutableFeatureMap;
+import org.tribuo.ImmutableOutputInfo;
+import org.tribuo.classification.Label;
+
+import java.util.Arrays;
+
+/**
+ * A 1-NN classifier under the L1 distance that works directly on the column-major values of a dense dataset and only
+ * reads the columns of the selected features
+ * <p>
+ * The distances between a block of test examples and every training example are accumulated a column at a time, so
+ * the inner loop runs over a contiguous array. It predicts what Tribuo's 1-NN {@code KNNTrainer} with the L1 distance
+ * predicts: the distances are summed in increasing feature id order and the first training example in fold order wins
+ * ties, as in Tribuo's brute force neighbour search.
+ */
+final class DenseNearestNeighbour {
+    private static final int BLOCK_SIZE = 64;
+    private final DataMatrix matrix;
+    private final int[] labels;
+
+    /**
+     * Constructs the classifier over every example of the given dataset
+     * @param dataset The dataset to use
+     * @param Fmap The dataset feature map
+     */
+    DenseNearestNeighbour(Dataset<Label> dataset, ImmutableFeatureMap Fmap) {
+        this.matrix = DataMatrix.fromDataset(dataset, Fmap);
+        ImmutableOutputInfo<Label> outputInfo = dataset.getOutputIDInfo();
+        this.labels = new int[dataset.size()];
+        int row = 0;
+        for (Example<Label> example : dataset) {
+            labels[row++] = outputInfo.getID(example.getOutput());
+        }
+    }
+
+    /**
+     * This method is used to classify the test examples of a fold with its training examples
+     * @param columns The ids of the selected features in increasing order
+     * @param train The indices of the training examples
+     * @param test The indices of the test examples
+     * @return The fraction of test examples whose class is predicted correctly
+     */
+    double accuracy(int[] columns, int[] train, int[] test) {
+        int trainSize = train.length;
+        double[] distances = new double[Math.min(BLOCK_SIZE, test.length) * trainSize];
+        double[] trainColumn = new double[trainSize];
+        int correct = 0;
+        for (int from = 0; from < test.length; from += BLOCK_SIZE) {
+            int block = Math.min(BLOCK_SIZE, test.length - from);
+            Arrays.fill(distances, 0, block * trainSize, 0);
+            for (int column : columns) {
+                for (int r = 0; r < trainSize; r++) {
+                    trainColumn[r] = matrix.get(train[r], column);
+                }
+                for (int t = 0; t < block; t++) {
+                    double value = matrix.get(test[from + t], column);
+                    int offset = t * trainSize;
+                    for (int r = 0; r < trainSize; r++) {
+                        distances[offset + r] += Math.abs(value - trainColumn[r]);
+                    }
+                }
+            }
+            for (int t = 0; t < block; t++) {
+                int offset = t * trainSize;
+                int nearest = 0;
+                for (int r = 1; r < trainSize; r++) {
+                    if (distances[offset + r] < distances[offset + nearest]) {
+                        nearest = r;
+                    }
+                }
+                if (labels[train[nearest]] == labels[test[from + t]]) {
+                    correct++;
+                }
+            }
+        }
+        return (double) correct / test.length;
+    }
+}
@@ -0,0 +1,136 @@
+package WrapperCuckooSearchForFS.org.Evaluation;
+
+import org.apache.commons.math3.stat.correlation.KendallsCorrelation;
+import org.apache.commons.math3.stat.correlation.PearsonsCorrelation;
+import org.apache.commons.math3.stat.ranking.NaturalRanking;
+import org.tribuo.Dataset;
+import org.tribuo.Example;
+import org.tribuo.ImmutableFeatureMap;
+import org.tribuo.ImmutableOutputInfo;
+import org.tribuo.classification.Label;
+
+import java.util.stream.IntStream;
+
+/**
+ * The filter measures that score every feature on its own, they are cheap next to a wrapper evaluation and are used
+ * to shrink the search space before the cuckoo search
+ * <p>
+ * The supervised measures compare a feature with the class, the correlation ones with the one-vs-rest indicator of
+ * every class keeping the largest absolute value. A higher score marks a more useful feature.
+ */
+public enum FeatureFilter {
+    Variance,
+    MutualInformation,
+    PearsonsCorrelation,
+    SpearmansCorrelation,
+    KendallsCorrelation;
+
+    private static final int MAX_BINS = 10;
+
+    /**
+     * This method is used to score every feature of the given dataset in parallel
+     * @param dataset The dataset to use
+     * @param Fmap The dataset feature map
+     * @return The score of every feature indexed by its id in the feature map
+     */
+    public double[] score(Dataset<Label> dataset, ImmutableFeatureMap Fmap) {
+        DataMatrix matrix = DataMatrix.fromDataset(dataset, Fmap);
+        ImmutableOutputInfo<Label> outputInfo = dataset.getOutputIDInfo();
+        int classes = outputInfo.size();
+        int[] labels = new int[dataset.size()];
+        int row = 0;
+        for (Example<Label> example : dataset) {
+            labels[row++] = outputInfo.getID(example.getOutput());
+        }
+        double[][] indicators = this == Variance || this == MutualInformation ? new double[0][] : indicators(labels, classes);
+        return IntStream.range(0, matrix.columns()).parallel().mapToDouble(c -> {
+            double[] column = matrix.column(c);
+            double score = switch (this) {
+                case Variance -> variance(column);
+                case MutualInformation -> mutualInformation(column, labels, classes);
+                case PearsonsCorrelation, SpearmansCorrelation, KendallsCorrelation -> correlation(column, indicators);
+            };
+            return Double.isNaN(score) ? 0 : score;
+        }).toArray();
+    }
+
+    /**
+     * @param labels The class id of every example
+     * @param classes The number of classes
+     * @return The one-vs-rest indicator of every class, a single one for two classes as both give the same score
+     */
+    private static double[][] indicators(int[] labels, int classes) {
+        double[][] indicators = new double[classes == 2 ? 1 : classes][labels.length];
+        for (int k = 0; k < indicators.length; k++) {
+            for (int row = 0; row < labels.length; row++) {
+                indicators[k][row] = labels[row] == k ? 1 : 0;
+            }
+        }
+        return indicators;
+    }
+
+    private static double variance(double[] column) {
+        double mean = 0;
+        for (double value : column) {
+            mean += value;
+        }
+        mean /= column.length;
+        double sum = 0;
+        for (double value : column) {
+            sum += (value - mean) * (value - mean);
+        }
+        return sum / column.length;
+    }
+
+    /**
+     * This method is used to compute the mutual information between the feature and the class, the feature is
+     * discretised into bins holding about the same number of examples
+     * @param column The values of the feature
+     * @param labels The class id of every example
+     * @param classes The number of classes
+     * @return The mutual information in nats
+     */
+    private static double mutualInformation(double[] column, int[] labels, int classes) {
+        int rows = column.length;
+        int bins = Math.max(1, Math.min(MAX_BINS, (int) Math.sqrt(rows)));
+        double[] ranks = new NaturalRanking().rank(column);
+        int[] joint = new int[bins * classes];
+        int[] binCounts = new int[bins];
+        int[] classCounts = new int[classes];
+        for (int row = 0; row < rows; row++) {
+            int bin = Math.min(bins - 1, (int) ((ranks[row] - 1) * bins / rows));
+            joint[bin * classes + labels[row]]++;
+            binCounts[bin]++;
+            classCounts[labels[row]]++;
+        }
+        double information = 0;
+        for (int bin = 0; bin < bins; bin++) {
+            for (int k = 0; k < classes; k++) {
+                int count = joint[bin * classes + k];
+                if (count > 0) {
+                    information += (double) count / rows * Math.log((double) count * rows / ((double) binCounts[bin] * classCounts[k]));
+                }
+            }
+        }
+        return information;
+    }
+
+    /**
+     * @param column The values of the feature
+     * @param indicators The one-vs-rest indicators of the classes
+     * @return The largest absolute correlation between the feature and an indicator
+     */
+    private double correlation(double[] column, double[][] indicators) {
+        double[] values = this == SpearmansCorrelation ? new NaturalRanking().rank(column) : column;
+        double best = 0;
+        for (double[] indicator : indicators) {
+            double correlation = this == KendallsCorrelation ?
+                    new KendallsCorrelation().correlation(values, indicator) :
+                    new PearsonsCorrelation().correlation(values, indicator);
+            if (Math.abs(correlation) > best) {
+                best = Math.abs(correlation);
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,89 @@
+package WrapperCuckooSearchForFS.org.Evaluation;
+
+import WrapperCuckooSearchForFS.org.Discreeting.BitGenome;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of the objectives of feature subsets keyed by their packed bitmask
+ */
+final class FitnessCache {
+    private final int capacity;
+    private final Map<BitGenome, Objectives> scores;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Constructs an empty cache
+     * @param capacity The maximum number of subsets to remember, 0 disables the cache
+     */
+    FitnessCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("The cache capacity must be non-negative, found " + capacity);
+        }
+        this.capacity = capacity;
+        this.scores = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<BitGenome, Objectives> eldest) {
+                return size() > FitnessCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * This method is used to look up the objectives of the given key
+     * @param key The subset of features
+     * @return The cached objectives or null if the subset has not been seen or was evicted
+     */
+    Objectives get(BitGenome key) {
+        if (capacity == 0) {
+            misses.incrementAndGet();
+            return null;
+        }
+        Objectives score;
+        synchronized (scores) {
+            score = scores.get(key);
+        }
+        if (score == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return score;
+    }
+
+    /**
+     * This method is used to remember the objectives of the given key
+     * @param key The subset of features, it is copied so the caller may keep mutating it
+     * @param score The objectives of the subset
+     */
+    void put(BitGenome key, Objectives score) {
+        if (capacity == 0) {
+            return;
+        }
+        synchronized (scores) {
+            scores.put(key.copy(), score);
+        }
+    }
+
+    /**
+     * This method is used to drop every cached subset and reset the counters
+     */
+    void clear() {
+        synchronized (scores) {
+            scores.clear();
+        }
+        hits.set(0);
+        misses.set(0);
+    }
+
+    long hits() {
+        return hits.get();
+    }
+
+    long misses() {
+        return misses.get();
+    }
+}
@@ -1,27 +1,52 @@
 package WrapperCuckooSearchForFS.org.Evaluation;
 
-import com.oracle.labs.mlrg.olcut.util.Pair;
-import org.apache.commons.math3.stat.correlation.KendallsCorrelation;
-import org.apache.commons.math3.stat.correlation.PearsonsCorrelation;
-import org.apache.commons.math3.stat.correlation.SpearmansCorrelation;
+import WrapperCuckooSearchForFS.org.Discreeting.BitGenome;
 import org.tribuo.*;
 import org.tribuo.classification.Label;
-import org.tribuo.classification.evaluation.LabelEvaluation;
 import org.tribuo.classification.evaluation.LabelEvaluator;
-import org.tribuo.dataset.SelectedFeatureDataset;
-import org.tribuo.evaluation.CrossValidation;
+import org.tribuo.dataset.DatasetView;
+import org.tribuo.evaluation.KFoldSplitter;
 import org.tribuo.provenance.FeatureSetProvenance;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
 
 public class FitnessFunction {
+    /**
+     * The default number of subsets whose scores are remembered by the fitness cache
+     */
+    public static final int DEFAULT_CACHE_SIZE = 10_000;
+    /**
+     * The default memory of the distance matrices cached by the incremental 1-NN backend
+     */
+    public static final long DEFAULT_DISTANCE_CACHE_BYTES = 256L << 20;
     private final Trainer<Label> trainer;
-    static double[][] matrix = null;
+    private DataMatrix matrix;
     private Correlation_Id correlation_id;
+    private static final int NUMBER_OF_FOLDS = 10;
+    private static final double RACING_TOLERANCE = 1e-9;
+    private volatile FitnessCache cache = new FitnessCache(DEFAULT_CACHE_SIZE);
+    private FoldPlan folds;
+    private volatile boolean earlyAbort;
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder trainingNanos = new LongAdder();
+    private final LongAdder correlationNanos = new LongAdder();
+    private CorrelationMatrix correlationMatrix;
+    private Dataset<Label> correlationSource;
+    private final ThreadLocal<CorrelationMatrix.Accumulator> lastSubset = new ThreadLocal<>();
+    private volatile Backend backend = Backend.Tribuo;
+    private DenseNearestNeighbour denseModel;
+    private Dataset<Label> denseSource;
+    private IncrementalNearestNeighbour incrementalModel;
+    private Dataset<Label> incrementalSource;
+    private volatile long distanceCacheBytes = DEFAULT_DISTANCE_CACHE_BYTES;
 
     /**
      * This interface includes the evaluation function of each solution
@@ -30,6 +55,31 @@ public class FitnessFunction {
         PearsonsCorrelation, SpearmansCorrelation, KendallsCorrelation
     }
 
+    /**
+     * The implementations of the cross validation of a candidate
+     */
+    public enum Backend {
+        /**
+         * Trains the given Tribuo trainer on every fold
+         */
+        Tribuo,
+        /**
+         * Classifies every fold with a 1-NN classifier under the L1 distance over the dense values of the dataset,
+         * which gives the accuracy of Tribuo's 1-NN {@code KNNTrainer} with {@code L1Distance} without building
+         * any Tribuo model, the given trainer is not used
+         */
+        DenseKNN,
+        /**
+         * Classifies every fold with a 1-NN classifier under the L1 distance whose pairwise distances are derived from
+         * the cached distances of the closest subset evaluated before, a candidate that differs from its nest in a
+         * few features only costs the update of those features. The values are quantised to a fixed point whose step
+         * is far below the precision of the data, so the accuracy matches {@link #DenseKNN} unless two neighbours are
+         * closer than that step, the given trainer is not used. When not even one distance matrix fits in the budget
+         * set by {@link #setDistanceCacheBytes(long)} the folds are classified as by {@link #DenseKNN}
+         */
+        IncrementalKNN
+    }
+
     /**
      * Default constructor of the fitness function utility
      * @param trainer The used trainer in the evaluation process
@@ -39,7 +89,18 @@ public class FitnessFunction {
     }
 
     /**
-     * Constructs the matrix of the entire data in order to make it suitable to compute the correlation
+     * Constructs the fitness function utility that computes the correlation from the examples of the evaluated dataset
+     * @param trainer The used trainer in the evaluation process
+     * @param c_id The used correlation function in the evaluation process
+     */
+    public FitnessFunction(Trainer<Label> trainer, Correlation_Id c_id) {
+        this.trainer = trainer;
+        this.correlation_id = c_id;
+    }
+
+    /**
+     * Constructs the matrix of the entire data in order to make it suitable to compute the correlation,
+     * the header names of the file are matched against the feature names of the evaluated dataset
      * @param path The URL of the data as a .CSV file format to be converted to matrix
      * @param trainer The used trainer in the evaluation process
      * @param c_id The used correlation function in the evaluation process
@@ -51,26 +112,256 @@ public class FitnessFunction {
     }
 
     /**
-     * This method is used to compute the fitness score of each solution of the population
+     * This method is used to compute the fitness score of each solution of the population, the scores of subsets
+     * that were already evaluated are served from a bounded LRU cache instead of rerunning the cross validation
      * @param optimizer The optimizer that is used for FS
      * @param dataset The dataset to use
      * @param Fmap The dataset feature map
      * @param solution The current subset of features
      * @return The fitness score of the given subset
      */
-    public <T extends FeatureSelector<Label>> double EvaluateSolution(T optimizer, Dataset<Label> dataset, ImmutableFeatureMap Fmap, int[] solution) {
-        SelectedFeatureDataset<Label> selectedFeatureDataset = new SelectedFeatureDataset<>(dataset,getSFS(optimizer, dataset, Fmap, solution));
-        CrossValidation<Label, LabelEvaluation> crossValidation = new CrossValidation<>(trainer, selectedFeatureDataset, new LabelEvaluator(), 10);
-        double avgAccuracy = 0D;
-        for (Pair<LabelEvaluation, Model<Label>> ACC : crossValidation.evaluate()) {
-            avgAccuracy += ACC.getA().accuracy();
+    public <T extends FeatureSelector<Label>> double EvaluateSolution(T optimizer, Dataset<Label> dataset, ImmutableFeatureMap Fmap, BitGenome solution) {
+        return EvaluateSolution(optimizer, dataset, Fmap, solution, Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * This method is used to compute the fitness score of a candidate that only matters if it beats the given incumbent score,
+     * when early abort is enabled the cross validation stops as soon as the remaining folds cannot lift the candidate above it
+     * @param optimizer The optimizer that is used for FS
+     * @param dataset The dataset to use
+     * @param Fmap The dataset feature map
+     * @param solution The current subset of features
+     * @param incumbentScore The score the candidate has to beat
+     * @return The fitness score of the given subset, or an upper bound of it below the incumbent score if the evaluation was aborted
+     */
+    public <T extends FeatureSelector<Label>> double EvaluateSolution(T optimizer, Dataset<Label> dataset, ImmutableFeatureMap Fmap, BitGenome solution, double incumbentScore) {
+        evaluations.increment();
+        Objectives cachedObjectives = cache.get(solution);
+        if (cachedObjectives != null) {
+            return cachedObjectives.weightedScore(Fmap.size());
+        }
+        double threshold = earlyAbort ? incumbentScore : Double.NEGATIVE_INFINITY;
+        Score score = computeScore(optimizer, dataset, Fmap, solution, threshold);
+        if (!score.aborted()) {
+            cache.put(solution, score.objectives());
+        }
+        return score.value();
+    }
+
+    /**
+     * This method is used to measure every objective of a subset instead of their weighted score, the cross validation
+     * always runs over every fold as the accuracy has to be exact, the objectives share the cache of the scores
+     * @param optimizer The optimizer that is used for FS
+     * @param dataset The dataset to use
+     * @param Fmap The dataset feature map
+     * @param solution The current subset of features
+     * @return The objectives of the given subset
+     */
+    public <T extends FeatureSelector<Label>> Objectives EvaluateObjectives(T optimizer, Dataset<Label> dataset, ImmutableFeatureMap Fmap, BitGenome solution) {
+        evaluations.increment();
+        Objectives cachedObjectives = cache.get(solution);
+        if (cachedObjectives != null) {
+            return cachedObjectives;
         }
-        avgAccuracy /= crossValidation.getK();
+        Objectives objectives = computeScore(optimizer, dataset, Fmap, solution, Double.NEGATIVE_INFINITY).objectives();
+        cache.put(solution, objectives);
+        return objectives;
+    }
+
+    /**
+     * This method is used to compute the fitness score of the given subset by running the cross validation over the
+     * fold splits shared by every candidate, each fold trains with a fixed invocation count so the score does not
+     * depend on the order in which candidates are evaluated
+     * <p>
+     * The folds are views over the given dataset whose feature map only holds the selected features, Tribuo ignores
+     * the features of an example that are missing from the map so no example is copied for a candidate.
+     * @param optimizer The optimizer that is used for FS
+     * @param dataset The dataset to use
+     * @param Fmap The dataset feature map
+     * @param solution The current subset of features
+     * @param threshold The score below which the evaluation may stop early
+     * @return The fitness score of the given subset
+     */
+    private <T extends FeatureSelector<Label>> Score computeScore(T optimizer, Dataset<Label> dataset, ImmutableFeatureMap Fmap, BitGenome solution, double threshold) {
+        int selectedFeatures = solution.cardinality();
+        if (selectedFeatures == 0) {
+            // A classifier without features has nothing to learn from
+            return new Score(0, new Objectives(0, 0, 0));
+        }
+        Backend foldBackend = backend;
+        if (foldBackend == Backend.IncrementalKNN && !IncrementalNearestNeighbour.fits(dataset.size(), distanceCacheBytes)) {
+            // Without room for a single cached matrix every evaluation would build its own, the dense scan is cheaper
+            foldBackend = Backend.DenseKNN;
+        }
+        ImmutableFeatureMap subsetMap = foldBackend == Backend.Tribuo ? getSubsetMap(Fmap, solution) : null;
+        DenseNearestNeighbour dense = foldBackend == Backend.DenseKNN ? getDenseModel(dataset, Fmap) : null;
+        int[] columns = foldBackend == Backend.DenseKNN ? solution.selectedIndices() : null;
+        IncrementalNearestNeighbour incremental = foldBackend == Backend.IncrementalKNN ? getIncrementalModel(dataset, Fmap) : null;
         double correlation = 0;
-        if (matrix != null) {
-            correlation = getCorrelation(correlation_id, solution);
+        if (correlation_id != null) {
+            long start = System.nanoTime();
+            correlation = getCorrelation(dataset, Fmap, solution);
+            correlationNanos.add(System.nanoTime() - start);
+        }
+        FoldPlan plan = getFolds(dataset);
+        LabelEvaluator evaluator = new LabelEvaluator();
+        double sumOfAccuracies = 0D;
+        long start = System.nanoTime();
+        try {
+            long[] distances = incremental != null ? incremental.distances(solution) : null;
+            for (int fold = 0; fold < NUMBER_OF_FOLDS; fold++) {
+                if (foldBackend == Backend.DenseKNN) {
+                    sumOfAccuracies += dense.accuracy(columns, plan.train()[fold], plan.test()[fold]);
+                } else if (foldBackend == Backend.IncrementalKNN) {
+                    sumOfAccuracies += incremental.accuracy(distances, plan.train()[fold], plan.test()[fold]);
+                } else {
+                    DatasetView<Label> train = new DatasetView<>(dataset, plan.train()[fold], subsetMap, dataset.getOutputIDInfo(), "train");
+                    DatasetView<Label> test = new DatasetView<>(dataset, plan.test()[fold], subsetMap, dataset.getOutputIDInfo(), "test");
+                    Model<Label> model = trainer.train(train, Collections.emptyMap(), fold);
+                    sumOfAccuracies += evaluator.evaluate(model, test).accuracy();
+                }
+                // The remaining folds can at best be classified without error
+                double upperBound = new Objectives((sumOfAccuracies + (NUMBER_OF_FOLDS - fold - 1)) / NUMBER_OF_FOLDS,
+                        selectedFeatures, correlation).weightedScore(Fmap.size());
+                if (upperBound < threshold - RACING_TOLERANCE) {
+                    return new Score(upperBound, null);
+                }
+            }
+        } finally {
+            trainingNanos.add(System.nanoTime() - start);
+        }
+        Objectives objectives = new Objectives(sumOfAccuracies / NUMBER_OF_FOLDS, selectedFeatures, correlation);
+        return new Score(objectives.weightedScore(Fmap.size()), objectives);
+    }
+
+    /**
+     * This method is used to build the feature map of a subset, which masks the other features of the dataset
+     * @param Fmap The dataset feature map
+     * @param solution The current subset of features
+     * @return The feature map holding only the selected features
+     */
+    private static ImmutableFeatureMap getSubsetMap(ImmutableFeatureMap Fmap, BitGenome solution) {
+        List<VariableInfo> features = new ArrayList<>(solution.cardinality());
+        for (int i = solution.nextSetBit(0); i >= 0; i = solution.nextSetBit(i + 1)) {
+            features.add(Fmap.get(i));
         }
-        return avgAccuracy + 0.001 * (1 - ((double) selectedFeatureDataset.getSelectedFeatures().size() / Fmap.size()) - correlation);
+        return new ImmutableFeatureMap(features);
+    }
+
+    /**
+     * This method is used to split the example indices into the cross validation folds once and reuse them, the split
+     * matches the one of Tribuo's {@link org.tribuo.evaluation.CrossValidation} with the default seed
+     * @param dataset The dataset to split
+     * @return The train and test indices of each fold
+     */
+    private synchronized FoldPlan getFolds(Dataset<Label> dataset) {
+        if (folds == null || folds.size() != dataset.size()) {
+            int[][] train = new int[NUMBER_OF_FOLDS][];
+            int[][] test = new int[NUMBER_OF_FOLDS][];
+            Iterator<KFoldSplitter.TrainTestFold<Label>> splits = new KFoldSplitter<Label>(NUMBER_OF_FOLDS, Trainer.DEFAULT_SEED).split(dataset, true);
+            for (int fold = 0; splits.hasNext(); fold++) {
+                KFoldSplitter.TrainTestFold<Label> split = splits.next();
+                train[fold] = split.train.getExampleIndices();
+                test[fold] = split.test.getExampleIndices();
+            }
+            folds = new FoldPlan(dataset.size(), train, test);
+        }
+        return folds;
+    }
+
+    /**
+     * This method is used to enable racing, where a candidate's cross validation stops once it can no longer beat the
+     * solution it is compared with, this does not change which solution wins
+     * @param earlyAbort True to stop hopeless evaluations early
+     */
+    public void setEarlyAbort(boolean earlyAbort) {
+        this.earlyAbort = earlyAbort;
+    }
+
+    /**
+     * This method is used to choose how the folds of a candidate are trained and tested, the cached scores are
+     * dropped as they may come from the other backend
+     * @param backend The implementation of the cross validation
+     */
+    public void setBackend(Backend backend) {
+        this.backend = Objects.requireNonNull(backend);
+        clearCache();
+    }
+
+    /**
+     * This method is used to bound the number of subsets whose objectives are remembered, the cached scores and the
+     * hit and miss counts start over
+     * @param cacheSize The maximum number of subsets to remember, 0 disables the cache
+     */
+    public void setCacheSize(int cacheSize) {
+        this.cache = new FitnessCache(cacheSize);
+    }
+
+    /**
+     * This method is used to bound the memory of the distance matrices cached by {@link Backend#IncrementalKNN}, a
+     * matrix takes 4·n·(n-1) bytes for n examples and {@link Backend#DenseKNN} is used when not even one fits
+     * @param distanceCacheBytes The memory that may be used by the cached distance matrices
+     */
+    public synchronized void setDistanceCacheBytes(long distanceCacheBytes) {
+        if (distanceCacheBytes < 0) {
+            throw new IllegalArgumentException("The distance cache size must be non-negative, found " + distanceCacheBytes);
+        }
+        this.distanceCacheBytes = distanceCacheBytes;
+        incrementalModel = null;
+        incrementalSource = null;
+    }
+
+    /**
+     * This method is used to give the correlation matrix of a dataset computed elsewhere, so the fitness functions of
+     * several searches over the same dataset share it instead of each computing it on first use
+     * @param dataset The dataset the matrix was computed from, it is only used for this very dataset
+     * @param correlationMatrix The correlation matrix of all features computed with the correlation of this function
+     */
+    public synchronized void setCorrelationMatrix(Dataset<Label> dataset, CorrelationMatrix correlationMatrix) {
+        this.correlationMatrix = Objects.requireNonNull(correlationMatrix);
+        this.correlationSource = Objects.requireNonNull(dataset);
+    }
+
+    /**
+     * This method is used to forget every cached fitness score, it must be called whenever the dataset changes
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * @return The number of evaluations answered by the fitness cache since it was last cleared
+     */
+    public long getCacheHits() {
+        return cache.hits();
+    }
+
+    /**
+     * @return The number of evaluations that required a cross validation run since the cache was last cleared
+     */
+    public long getCacheMisses() {
+        return cache.misses();
+    }
+
+    /**
+     * @return The number of calls to EvaluateSolution, including the ones answered by the cache
+     */
+    public long getEvaluationCount() {
+        return evaluations.sum();
+    }
+
+    /**
+     * @return The total time spent training and testing the cross validation folds, summed over all threads
+     */
+    public long getTrainingNanos() {
+        return trainingNanos.sum();
+    }
+
+    /**
+     * @return The total time spent computing the correlation of the subsets, summed over all threads
+     */
+    public long getCorrelationNanos() {
+        return correlationNanos.sum();
     }
 
     /**
@@ -81,14 +372,12 @@ public class FitnessFunction {
      * @param solution The current subset of featurs
      * @return The selected feature set
      */
-    public <T extends FeatureSelector<Label>> SelectedFeatureSet getSFS(T optimizer, Dataset<Label> dataset, ImmutableFeatureMap Fmap, int[] solution) {
+    public <T extends FeatureSelector<Label>> SelectedFeatureSet getSFS(T optimizer, Dataset<Label> dataset, ImmutableFeatureMap Fmap, BitGenome solution) {
         List<String> names = new ArrayList<>();
         List<Double> scores = new ArrayList<>();
-        for (int i = 0; i < solution.length; i++) {
-            if (solution[i] == 1) {
-                names.add(Fmap.get(i).getName());
-                scores.add(1D);
-            }
+        for (int i = solution.nextSetBit(0); i >= 0; i = solution.nextSetBit(i + 1)) {
+            names.add(Fmap.get(i).getName());
+            scores.add(1D);
         }
         FeatureSetProvenance provenance = new FeatureSetProvenance(SelectedFeatureSet.class.getName(), dataset.getProvenance(), optimizer.getProvenance());
 
@@ -96,54 +385,98 @@ public class FitnessFunction {
     }
 
     /**
-     * This method is used to convert the given data (.csv) into two dimention matrix
+     * This method is used to stream the given data (.csv) into a column-major matrix
      * @param dataPath The URL of the .CSV data file
-     * @return The 2D matrix of the given data
-     */
-    private double[][] getMatrix(String dataPath) {
-        double[][] matrix = null;
-        try (Scanner originalData = new Scanner(new File(dataPath))) {
-            originalData.nextLine();
-            List<String> listOfRows = new ArrayList<>();
-            while (originalData.hasNext()) {
-                listOfRows.add(originalData.nextLine());
-            }
-            matrix = new double[listOfRows.size()][listOfRows.get(0).split(",").length - 1];
-            for (int i = 0; i < listOfRows.size() - 1; i++) {
-                String[] breakLine = listOfRows.get(i).split(",");
-                for (int ii = 0; ii < breakLine.length - 1; ii++) {
-                    matrix[i][ii] = Double.parseDouble(breakLine[ii]);
-                }
-            }
+     * @return The matrix of the given data
+     */
+    private DataMatrix getMatrix(String dataPath) {
+        try {
+            return DataMatrix.fromCSV(Path.of(dataPath));
         } catch (IOException e) {
-            e.printStackTrace();
+            throw new UncheckedIOException("Failed to read the data file " + dataPath, e);
+        }
+    }
+
+    /**
+     * This method is used to build the dense 1-NN classifier of the given dataset once and reuse it
+     * @param dataset The dataset to use
+     * @param Fmap The dataset feature map
+     * @return The classifier over every example of the dataset
+     */
+    private synchronized DenseNearestNeighbour getDenseModel(Dataset<Label> dataset, ImmutableFeatureMap Fmap) {
+        if (denseModel == null || denseSource != dataset) {
+            denseModel = new DenseNearestNeighbour(dataset, Fmap);
+            denseSource = dataset;
+        }
+        return denseModel;
+    }
+
+    /**
+     * This method is used to build the incremental 1-NN classifier of the given dataset once and reuse it, so its
+     * distance matrices are shared by every nest
+     * @param dataset The dataset to use
+     * @param Fmap The dataset feature map
+     * @return The classifier over every example of the dataset
+     */
+    private synchronized IncrementalNearestNeighbour getIncrementalModel(Dataset<Label> dataset, ImmutableFeatureMap Fmap) {
+        if (incrementalModel == null || incrementalSource != dataset) {
+            incrementalModel = new IncrementalNearestNeighbour(dataset, Fmap, distanceCacheBytes);
+            incrementalSource = dataset;
+        }
+        return incrementalModel;
+    }
+
+    /**
+     * This method is used to compute the correlation matrix of the entire data on first use, the data is taken from the
+     * .CSV file given at construction or else from the examples Tribuo has already loaded into the dataset
+     * @param dataset The dataset to use
+     * @param Fmap The dataset feature map
+     * @return The correlation matrix of all features, indexed by feature id
+     */
+    private synchronized CorrelationMatrix getCorrelationMatrix(Dataset<Label> dataset, ImmutableFeatureMap Fmap) {
+        if (correlationMatrix == null || correlationSource != dataset) {
+            DataMatrix data = matrix != null ? matrix.alignTo(Fmap) : DataMatrix.fromDataset(dataset, Fmap);
+            correlationMatrix = CorrelationMatrix.compute(data, correlation_id);
+            correlationSource = dataset;
         }
-        return matrix;
+        return correlationMatrix;
     }
 
     /**
-     * This method is used to compute the correlation value of the given solution to check the dependency ratio between variables
-     * @param correlation_id The function to be used to compute the correlation
+     * This method is used to compute the correlation value of the given solution to check the dependency ratio between variables,
+     * the subset last evaluated on the current thread is updated incrementally when it differs from the solution in only a few features
+     * @param dataset The dataset to use
+     * @param Fmap The dataset feature map
      * @param solution The current solution from the current generation
      * @return The correlation value of the given solution
      */
-    private double getCorrelation(Correlation_Id correlation_id, int[] solution) {
-        List<Integer> indecies = new ArrayList<>();
-        for (int index = 0; index < solution.length; index++) {
-            if (solution[index] == 1)
-                indecies.add(index);
+    private double getCorrelation(Dataset<Label> dataset, ImmutableFeatureMap Fmap, BitGenome solution) {
+        CorrelationMatrix correlations = getCorrelationMatrix(dataset, Fmap);
+        CorrelationMatrix.Accumulator accumulator = lastSubset.get();
+        if (accumulator == null || !accumulator.belongsTo(correlations)) {
+            accumulator = correlations.newAccumulator();
+            lastSubset.set(accumulator);
         }
-        double[][] mat = new double[matrix.length][indecies.size() - 1];
-        for (int r = 0; r < mat.length; r++) {
-            for (int c = 0; c < mat[0].length; c++) {
-                mat[r][c] = matrix[r][indecies.get(c)];
-            }
+        if (accumulator.distanceTo(solution) > solution.cardinality()) {
+            accumulator = correlations.newAccumulator();
+            lastSubset.set(accumulator);
         }
-        return switch (correlation_id) {
-            case PearsonsCorrelation -> new PearsonsCorrelation().computeCorrelationMatrix(mat).getNorm() / mat[0].length;
-            case SpearmansCorrelation -> new SpearmansCorrelation().computeCorrelationMatrix(mat).getNorm() / mat[0].length;
-            case KendallsCorrelation -> new KendallsCorrelation().computeCorrelationMatrix(mat).getNorm() / mat[0].length;
-        };
+        accumulator.moveTo(solution);
+        return accumulator.norm();
     }
-}
 
+    /**
+     * This record is used to hold the example indices of every cross validation fold for datasets of the given size
+     */
+    private record FoldPlan(int size, int[][] train, int[][] test) { }
+
+    /**
+     * This record is used to hold a fitness score with the objectives it was computed from, the objectives are null
+     * when the evaluation was aborted and the score is only an upper bound
+     */
+    private record Score(double value, Objectives objectives) {
+        boolean aborted() {
+            return objectives == null;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package WrapperCuckooSearchForFS.org.Evaluation;
+
+import WrapperCuckooSearchForFS.org.Discreeting.BitGenome;
+import org.tribuo.Dataset;
+import org.tribuo.Example;
+import org.tribuo.ImmutableFeatureMap;
+import org.tribuo.ImmutableOutputInfo;
+import org.tribuo.classification.Label;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A 1-NN classifier under the L1 distance that derives the pairwise distances of a subset from the cached distances
+ * of the closest subset evaluated before, adding the contribution of every feature it selects on top of it and
+ * subtracting the contribution of every feature it drops
+ * <p>
+ * The values are stored in fixed point so the distances are exact sums of integers, a distance matrix is then the
+ * same whichever cached subset it was derived from and however many times it was updated, which keeps the fitness
+ * score independent of the evaluation order. The cached matrices are bounded by a memory budget and held in slots that
+ * are scanned without a lock, so parallel evaluations only contend when they replace the same slot.
+ */
+final class IncrementalNearestNeighbour {
+    private static final int MAX_CACHED_MATRICES = 1 << 12;
+    private final int rows;
+    private final int columns;
+    private final int pairs;
+    private final long[] values;
+    private final int[] labels;
+    private final AtomicReferenceArray<CachedDistances> cache;
+    private final AtomicLong clock = new AtomicLong();
+
+    /**
+     * This class is used to hold a cached distance matrix with the time it was last used
+     */
+    private static final class CachedDistances {
+        private final BitGenome subSet;
+        private final long[] distances;
+        private volatile long lastUse;
+
+        private CachedDistances(BitGenome subSet, long[] distances, long lastUse) {
+            this.subSet = subSet;
+            this.distances = distances;
+            this.lastUse = lastUse;
+        }
+    }
+
+    /**
+     * Constructs the classifier over every example of the given dataset
+     * @param dataset The dataset to use
+     * @param Fmap The dataset feature map
+     * @param cacheBytes The memory that may be used by the cached distance matrices, at least one matrix must fit
+     */
+    IncrementalNearestNeighbour(Dataset<Label> dataset, ImmutableFeatureMap Fmap, long cacheBytes) {
+        if (!fits(dataset.size(), cacheBytes)) {
+            throw new IllegalArgumentException("The distance matrix of " + dataset.size() + " examples does not fit in " + cacheBytes + " bytes");
+        }
+        DataMatrix matrix = DataMatrix.fromDataset(dataset, Fmap);
+        this.rows = matrix.rows();
+        this.pairs = (int) ((long) rows * (rows - 1) / 2);
+        this.columns = matrix.columns();
+        double largest = 0;
+        for (int c = 0; c < columns; c++) {
+            for (int r = 0; r < rows; r++) {
+                largest = Math.max(largest, Math.abs(matrix.get(r, c)));
+            }
+        }
+        // The largest power of two that keeps the distance over every feature below 2^62
+        int exponent = largest == 0 ? 0 : Math.min(62, 61 - Math.getExponent(largest) - (32 - Integer.numberOfLeadingZeros(Math.max(columns, 1))));
+        this.values = new long[rows * columns];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.round(Math.scalb(matrix.get(i % rows, i / rows), exponent));
+        }
+        ImmutableOutputInfo<Label> outputInfo = dataset.getOutputIDInfo();
+        this.labels = new int[rows];
+        int row = 0;
+        for (Example<Label> example : dataset) {
+            labels[row++] = outputInfo.getID(example.getOutput());
+        }
+        this.cache = new AtomicReferenceArray<>((int) Math.min(MAX_CACHED_MATRICES, cacheBytes / matrixBytes(rows)));
+    }
+
+    /**
+     * This method is used to check whether the classifier can run within the given memory budget
+     * @param rows The number of examples
+     * @param cacheBytes The memory that may be used by the cached distance matrices
+     * @return True if a single distance matrix fits both in an array and in the budget
+     */
+    static boolean fits(int rows, long cacheBytes) {
+        long pairs = (long) rows * (rows - 1) / 2;
+        return pairs <= Integer.MAX_VALUE - 8 && matrixBytes(rows) <= cacheBytes;
+    }
+
+    /**
+     * @param rows The number of examples
+     * @return The memory taken by one cached distance matrix
+     */
+    static long matrixBytes(int rows) {
+        return 8L * rows * (rows - 1) / 2 + 64;
+    }
+
+    /**
+     * This method is used to compute the distance between every pair of examples over the selected features, starting
+     * from the cached subset that differs from it in the fewest features when that is cheaper than starting over
+     * @param solution The current subset of features
+     * @return The distances of the pairs {@code i < j} in row order
+     */
+    long[] distances(BitGenome solution) {
+        CachedDistances parent = null;
+        int cost = solution.cardinality();
+        for (int slot = 0; slot < cache.length(); slot++) {
+            CachedDistances cached = cache.get(slot);
+            if (cached != null) {
+                int distance = cached.subSet.distance(solution);
+                if (distance < cost) {
+                    cost = distance;
+                    parent = cached;
+                }
+            }
+        }
+        long[] distances;
+        if (parent == null) {
+            distances = new long[pairs];
+            for (int c = solution.nextSetBit(0); c >= 0; c = solution.nextSetBit(c + 1)) {
+                addColumn(distances, c, 1);
+            }
+        } else {
+            // Touch the parent so the subsets that keep producing children stay cached
+            parent.lastUse = clock.incrementAndGet();
+            distances = parent.distances.clone();
+            for (int c = solution.nextDifferentBit(parent.subSet, 0); c >= 0; c = solution.nextDifferentBit(parent.subSet, c + 1)) {
+                addColumn(distances, c, solution.get(c) ? 1 : -1);
+            }
+        }
+        store(new CachedDistances(solution.copy(), distances, clock.incrementAndGet()));
+        return distances;
+    }
+
+    /**
+     * This method is used to cache a distance matrix in an empty slot or else in place of the least recently used one,
+     * the matrix is dropped if another evaluation replaced that slot in the meantime
+     * @param entry The matrix to cache
+     */
+    private void store(CachedDistances entry) {
+        int victim = -1;
+        CachedDistances replaced = null;
+        for (int slot = 0; slot < cache.length(); slot++) {
+            CachedDistances cached = cache.get(slot);
+            if (cached == null) {
+                victim = slot;
+                replaced = null;
+                break;
+            }
+            if (victim < 0 || cached.lastUse < replaced.lastUse) {
+                victim = slot;
+                replaced = cached;
+            }
+        }
+        if (victim >= 0) {
+            cache.compareAndSet(victim, replaced, entry);
+        }
+    }
+
+    /**
+     * This method is used to classify the test examples of a fold with its training examples
+     * @param distances The pairwise distances returned by {@link #distances(BitGenome)}
+     * @param train The indices of the training examples
+     * @param test The indices of the test examples
+     * @return The fraction of test examples whose class is predicted correctly, the first training example in fold
+     * order wins ties
+     */
+    double accuracy(long[] distances, int[] train, int[] test) {
+        int correct = 0;
+        for (int t : test) {
+            int nearest = -1;
+            long nearestDistance = Long.MAX_VALUE;
+            for (int r : train) {
+                long distance = r < t ? distances[pairIndex(r, t)] : distances[pairIndex(t, r)];
+                if (distance < nearestDistance) {
+                    nearestDistance = distance;
+                    nearest = r;
+                }
+            }
+            if (labels[nearest] == labels[t]) {
+                correct++;
+            }
+        }
+        return (double) correct / test.length;
+    }
+
+    /**
+     * @param distances The pairwise distances to update
+     * @param column The feature to add or remove
+     * @param sign 1 to add the feature, -1 to remove it
+     */
+    private void addColumn(long[] distances, int column, int sign) {
+        int offset = column * rows;
+        int index = 0;
+        for (int i = 0; i < rows; i++) {
+            long value = values[offset + i];
+            for (int j = i + 1; j < rows; j++) {
+                distances[index++] += sign * Math.abs(value - values[offset + j]);
+            }
+        }
+    }
+
+    /**
+     * @param i The smaller example index
+     * @param j The larger example index
+     * @return The position of the pair in the packed upper triangle
+     */
+    private int pairIndex(int i, int j) {
+        return (int) ((long) i * (2L * rows - i - 1) / 2 + (j - i - 1));
+    }
+}
@@ -0,0 +1,35 @@
+package WrapperCuckooSearchForFS.org.Evaluation;
+
+/**
+ * The objectives of a subset of features, measured by a single cross validation run
+ * <p>
+ * The accuracy is maximised while the number of features and the redundancy are minimised, the fitness score of the
+ * single objective search weights the last two against the first one.
+ * @param accuracy The mean accuracy of the cross validation folds
+ * @param featureCount The number of selected features
+ * @param redundancy The correlation between the selected features, 0 when the fitness function has no correlation
+ */
+public record Objectives(double accuracy, int featureCount, double redundancy) {
+    private static final double PENALTY_WEIGHT = 0.001;
+
+    /**
+     * @param other The objectives to compare with
+     * @return True if these objectives are at least as good as the other ones on every objective and better on one
+     */
+    public boolean dominates(Objectives other) {
+        return accuracy >= other.accuracy && featureCount <= other.featureCount && redundancy <= other.redundancy
+                && (accuracy > other.accuracy || featureCount < other.featureCount || redundancy < other.redundancy);
+    }
+
+    /**
+     * This method is used to combine the objectives into the fitness score of the single objective search
+     * @param totalFeatures The number of features of the searched dataset
+     * @return The accuracy plus a small reward for a short and weakly correlated subset, 0 for the empty subset
+     */
+    public double weightedScore(int totalFeatures) {
+        if (featureCount == 0) {
+            return 0;
+        }
+        return accuracy + PENALTY_WEIGHT * (1 - ((double) featureCount / totalFeatures) - redundancy);
+    }
+}
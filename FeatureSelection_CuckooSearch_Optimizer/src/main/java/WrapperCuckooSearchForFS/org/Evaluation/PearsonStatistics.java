@@ -0,0 +1,217 @@
+package WrapperCuckooSearchForFS.org.Evaluation;
+
+import org.tribuo.Dataset;
+import org.tribuo.ImmutableFeatureMap;
+import org.tribuo.classification.Label;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * The running means and co-moments of the features of a growing dataset, enough to rebuild its Pearson correlation
+ * matrix without going back to the rows that were already seen
+ * <p>
+ * A batch of m new rows costs O(m·d²) to summarise and O(d²) to merge, the statistics of the batch and of the rows
+ * seen so far are combined with the pairwise update of Chan et al. so no precision is lost to a long sum. Spearman's
+ * and Kendall's correlations depend on the rank of every row and still need a full recompute.
+ * <p>
+ * see:
+ * <pre>
+ * Tony F. Chan, Gene H. Golub and Randall J. LeVeque.
+ * "Updating Formulae and a Pairwise Algorithm for Computing Sample Variances", 1979.
+ * </pre>
+ */
+public final class PearsonStatistics {
+    private static final int MAGIC = 0x43535053;
+    private static final byte VERSION = 1;
+    private final String[] featureNames;
+    private final double[] means;
+    private final double[] variances;
+    private final double[] coMoments;
+    private long count;
+
+    /**
+     * Constructs the statistics of an empty dataset
+     * @param Fmap The feature map of the dataset, the features of every batch must have the same ids
+     */
+    public PearsonStatistics(ImmutableFeatureMap Fmap) {
+        this(featureNames(Fmap));
+    }
+
+    private PearsonStatistics(String[] featureNames) {
+        this.featureNames = featureNames;
+        this.means = new double[featureNames.length];
+        this.variances = new double[featureNames.length];
+        this.coMoments = new double[CorrelationMatrix.checkedPairs(featureNames.length)];
+    }
+
+    /**
+     * This method is used to add a batch of rows to the statistics
+     * @param batch The new rows
+     * @param Fmap The feature map giving the ids of the features, it must hold the same features as the statistics
+     */
+    public void add(Dataset<Label> batch, ImmutableFeatureMap Fmap) {
+        String[] names = featureNames(Fmap);
+        if (!Arrays.equals(names, featureNames)) {
+            throw new IllegalArgumentException("The batch has " + names.length + " features that differ from the " + featureNames.length + " features of the statistics");
+        }
+        add(DataMatrix.fromDataset(batch, Fmap));
+    }
+
+    /**
+     * This method is used to add a batch of rows to the statistics
+     * @param batch The new rows, column {@code c} holds the feature of id {@code c}
+     */
+    public void add(DataMatrix batch) {
+        if (batch.columns() != featureNames.length) {
+            throw new IllegalArgumentException("The batch has " + batch.columns() + " columns, expected " + featureNames.length);
+        }
+        int size = featureNames.length;
+        int rows = batch.rows();
+        if (rows == 0) {
+            return;
+        }
+        double[][] centred = new double[size][];
+        double[] batchMeans = new double[size];
+        IntStream.range(0, size).parallel().forEach(c -> {
+            double[] column = batch.column(c);
+            double sum = 0;
+            for (double value : column) {
+                sum += value;
+            }
+            double mean = sum / rows;
+            for (int r = 0; r < rows; r++) {
+                column[r] -= mean;
+            }
+            batchMeans[c] = mean;
+            centred[c] = column;
+        });
+        long total = count + rows;
+        double weight = (double) count * rows / total;
+        IntStream.range(0, size).parallel().forEach(i -> {
+            double deltaI = batchMeans[i] - means[i];
+            double[] first = centred[i];
+            variances[i] += moment(first, first) + deltaI * deltaI * weight;
+            int offset = CorrelationMatrix.pairIndex(size, i, i + 1);
+            for (int j = i + 1; j < size; j++) {
+                coMoments[offset + j - i - 1] += moment(first, centred[j]) + deltaI * (batchMeans[j] - means[j]) * weight;
+            }
+        });
+        for (int c = 0; c < size; c++) {
+            means[c] += (batchMeans[c] - means[c]) * rows / total;
+        }
+        count = total;
+    }
+
+    private static double moment(double[] first, double[] second) {
+        double sum = 0;
+        for (int r = 0; r < first.length; r++) {
+            sum += first[r] * second[r];
+        }
+        return sum;
+    }
+
+    /**
+     * @return The number of rows seen so far
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * This method is used to build the Pearson correlation matrix of every row seen so far
+     * @return The correlation matrix, a pair with a constant feature is undefined as in a full recompute
+     */
+    public CorrelationMatrix toCorrelationMatrix() {
+        int size = featureNames.length;
+        double[] correlations = new double[CorrelationMatrix.checkedPairs(size)];
+        IntStream.range(0, size).parallel().forEach(i -> {
+            int offset = CorrelationMatrix.pairIndex(size, i, i + 1);
+            for (int j = i + 1; j < size; j++) {
+                double varianceProduct = variances[i] * variances[j];
+                correlations[offset + j - i - 1] = varianceProduct > 0 ?
+                        Math.max(-1, Math.min(1, coMoments[offset + j - i - 1] / Math.sqrt(varianceProduct))) : Double.NaN;
+            }
+        });
+        return CorrelationMatrix.fromCorrelations(size, correlations);
+    }
+
+    /**
+     * This method is used to save the statistics so the next batch can be added by another process
+     * @param path The path of the statistics file
+     * @throws IOException If the file cannot be written
+     */
+    public void write(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(featureNames.length);
+            out.writeLong(count);
+            for (String name : featureNames) {
+                out.writeUTF(name);
+            }
+            for (double mean : means) {
+                out.writeDouble(mean);
+            }
+            // Row after row of the upper triangle, each row starting with the variance
+            int index = 0;
+            for (int i = 0; i < featureNames.length; i++) {
+                out.writeDouble(variances[i]);
+                for (int j = i + 1; j < featureNames.length; j++) {
+                    out.writeDouble(coMoments[index++]);
+                }
+            }
+        }
+    }
+
+    /**
+     * This method is used to read statistics written by {@link #write(Path)}
+     * @param path The path of the statistics file
+     * @return The statistics
+     * @throws IOException If the file cannot be read or does not hold statistics
+     */
+    public static PearsonStatistics read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(path + " does not hold Pearson statistics");
+            }
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported statistics version " + version + " in " + path);
+            }
+            int size = in.readInt();
+            long count = in.readLong();
+            if (size < 0 || count < 0) {
+                throw new IOException("Corrupted statistics header in " + path);
+            }
+            String[] names = new String[size];
+            for (int c = 0; c < size; c++) {
+                names[c] = in.readUTF();
+            }
+            PearsonStatistics statistics = new PearsonStatistics(names);
+            statistics.count = count;
+            for (int c = 0; c < size; c++) {
+                statistics.means[c] = in.readDouble();
+            }
+            int index = 0;
+            for (int i = 0; i < size; i++) {
+                statistics.variances[i] = in.readDouble();
+                for (int j = i + 1; j < size; j++) {
+                    statistics.coMoments[index++] = in.readDouble();
+                }
+            }
+            return statistics;
+        }
+    }
+
+    private static String[] featureNames(ImmutableFeatureMap Fmap) {
+        String[] names = new String[Fmap.size()];
+        for (int id = 0; id < names.length; id++) {
+            names[id] = Fmap.get(id).getName();
+        }
+        return names;
+    }
+}
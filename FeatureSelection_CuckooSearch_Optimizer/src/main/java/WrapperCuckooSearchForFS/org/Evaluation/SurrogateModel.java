@@ -0,0 +1,148 @@
+package WrapperCuckooSearchForFS.org.Evaluation;
+
+import WrapperCuckooSearchForFS.org.Discreeting.BitGenome;
+
+import java.util.Arrays;
+
+/**
+ * A linear model of the fitness score over the bitmask of a subset, learned online from the subsets that were
+ * already evaluated, which screens out candidates that are clearly worse than the solution they compete with
+ * <p>
+ * The model is trained with the normalized least mean squares rule and keeps a moving estimate of its error on
+ * observations it had not seen yet. A candidate is rejected when its prediction plus a multiple of that error is
+ * still below the score it has to beat. The model is only read while a generation is evaluated and trained between
+ * generations, so the screening does not depend on the number of threads.
+ * <p>
+ * see:
+ * <pre>
+ * Yaochu Jin.
+ * "Surrogate-assisted evolutionary computation: Recent advances and future challenges", 2011.
+ * </pre>
+ */
+public final class SurrogateModel {
+    private static final double LEARNING_RATE = 0.5;
+    private static final double ERROR_DECAY = 0.05;
+    private final int warmUp;
+    private final double confidence;
+    private final long evaluationBudget;
+    private double[] weights = new double[0];
+    private double bias;
+    private double meanSquaredError = Double.NaN;
+    private long observations;
+
+    /**
+     * The default surrogate, it starts screening after 100 evaluations and has no budget
+     */
+    public SurrogateModel() {
+        this(100, 2d, Long.MAX_VALUE);
+    }
+
+    /**
+     * The constructor of the surrogate
+     * @param warmUp The number of evaluated subsets to learn from before screening any candidate
+     * @param confidence The number of standard errors a prediction may be below the bar before it is rejected
+     * @param evaluationBudget The number of cross validation runs a search may make, the subsets answered by the
+     *                         fitness cache are not counted as no model is trained for them
+     */
+    public SurrogateModel(int warmUp, double confidence, long evaluationBudget) {
+        if (warmUp < 0 || confidence < 0 || evaluationBudget < 1) {
+            throw new IllegalArgumentException("Invalid surrogate with warm up " + warmUp + ", confidence " + confidence + " and budget " + evaluationBudget);
+        }
+        this.warmUp = warmUp;
+        this.confidence = confidence;
+        this.evaluationBudget = evaluationBudget;
+    }
+
+    /**
+     * This method is used to forget everything learned before a new search
+     * @param featureCount The number of features of the searched dataset
+     */
+    public void reset(int featureCount) {
+        weights = new double[featureCount];
+        bias = 0;
+        meanSquaredError = Double.NaN;
+        observations = 0;
+    }
+
+    /**
+     * @param subSet The subset of features
+     * @return The predicted fitness score of the subset
+     */
+    public double predict(BitGenome subSet) {
+        double prediction = bias;
+        for (int i = subSet.nextSetBit(0); i >= 0; i = subSet.nextSetBit(i + 1)) {
+            prediction += weights[i];
+        }
+        return prediction;
+    }
+
+    /**
+     * @param candidate The subset of features to screen
+     * @param bar The fitness score the candidate has to beat
+     * @return True if the candidate is confidently worse than the bar and does not need to be evaluated
+     */
+    public boolean rejects(BitGenome candidate, double bar) {
+        if (observations < warmUp || Double.isNaN(meanSquaredError) || !Double.isFinite(bar)) {
+            return false;
+        }
+        return predict(candidate) + confidence * Math.sqrt(meanSquaredError) < bar;
+    }
+
+    /**
+     * This method is used to learn from an evaluated subset, the error of the prediction is measured before the model
+     * is updated so it estimates the error on unseen subsets
+     * @param subSet The evaluated subset of features
+     * @param score The exact fitness score of the subset, not an upper bound from a cross validation stopped early
+     */
+    public void update(BitGenome subSet, double score) {
+        if (!Double.isFinite(score)) {
+            return;
+        }
+        observations++;
+        double error = score - predict(subSet);
+        meanSquaredError = Double.isNaN(meanSquaredError) ? error * error : (1 - ERROR_DECAY) * meanSquaredError + ERROR_DECAY * error * error;
+        double step = LEARNING_RATE * error / (1 + subSet.cardinality());
+        bias += step;
+        for (int i = subSet.nextSetBit(0); i >= 0; i = subSet.nextSetBit(i + 1)) {
+            weights[i] += step;
+        }
+    }
+
+    /**
+     * @return The number of cross validation runs a search may make
+     */
+    public long getEvaluationBudget() {
+        return evaluationBudget;
+    }
+
+    /**
+     * @return The number of scores learned since the last reset
+     */
+    public long getObservations() {
+        return observations;
+    }
+
+    /**
+     * @return The learned state, used to save the surrogate with a checkpoint
+     */
+    public double[] getState() {
+        double[] state = Arrays.copyOf(weights, weights.length + 3);
+        state[weights.length] = bias;
+        state[weights.length + 1] = meanSquaredError;
+        state[weights.length + 2] = observations;
+        return state;
+    }
+
+    /**
+     * @param state A state returned by {@link #getState()}
+     */
+    public void setState(double[] state) {
+        if (state.length < 3) {
+            throw new IllegalArgumentException("The surrogate state must hold at least 3 values, found " + state.length);
+        }
+        weights = Arrays.copyOf(state, state.length - 3);
+        bias = state[state.length - 3];
+        meanSquaredError = state[state.length - 2];
+        observations = (long) state[state.length - 1];
+    }
+}
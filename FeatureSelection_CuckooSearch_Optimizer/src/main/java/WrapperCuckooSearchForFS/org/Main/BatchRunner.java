@@ -0,0 +1,430 @@
+package WrapperCuckooSearchForFS.org.Main;
+
+import WrapperCuckooSearchForFS.org.Discreeting.TransferFunction;
+import WrapperCuckooSearchForFS.org.Evaluation.CorrelationMatrix;
+import WrapperCuckooSearchForFS.org.Evaluation.DataMatrix;
+import WrapperCuckooSearchForFS.org.Evaluation.FitnessFunction;
+import WrapperCuckooSearchForFS.org.Optimizers.CuckooSearchOptimizer;
+import WrapperCuckooSearchForFS.org.Optimizers.IterationMetrics;
+import WrapperCuckooSearchForFS.org.Optimizers.SearchListener;
+import com.oracle.labs.mlrg.olcut.config.ConfigurationManager;
+import org.tribuo.Dataset;
+import org.tribuo.ImmutableFeatureMap;
+import org.tribuo.MutableDataset;
+import org.tribuo.SelectedFeatureSet;
+import org.tribuo.Trainer;
+import org.tribuo.classification.Label;
+import org.tribuo.classification.LabelFactory;
+import org.tribuo.classification.ensemble.VotingCombiner;
+import org.tribuo.common.nearest.KNNModel;
+import org.tribuo.common.nearest.KNNTrainer;
+import org.tribuo.data.csv.CSVLoader;
+import org.tribuo.math.distance.L1Distance;
+import org.tribuo.math.neighbour.NeighboursQueryFactoryType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a sweep of cuckoo searches within one JVM
+ * <p>
+ * Usage: {@code BatchRunner <job spec> <report.csv|report.jsonl> [concurrent jobs] [evaluation threads]}
+ * <p>
+ * Every line of the spec holds whitespace separated {@code key=value} settings, a value holding commas is a list and
+ * the line is expanded into one job for every combination of the listed values, so
+ * {@code dataset=a.csv,b.csv transfer=V1,V2,V3 correlation=PearsonsCorrelation,None} gives twelve jobs. Blank lines and
+ * lines starting with # are skipped. The keys and their defaults, which are the ones of {@link MainClass}, are:
+ * <pre>
+ * dataset                  the .CSV file, required
+ * label                    the class column, Class
+ * transfer                 the transfer function, V2
+ * correlation              the correlation of the fitness function or None, PearsonsCorrelation
+ * population               20
+ * stepSizeScaling          1.5
+ * lambda                   2.5
+ * worstNestProbability     0.2
+ * mutationRate             0.2
+ * delta                    1.5
+ * iterations               10
+ * seed                     12345
+ * backend                  the fitness backend, Tribuo
+ * earlyAbort               false
+ * trainerConfig            an OLCUT configuration file holding the trainer, the 1-NN of the default optimizer if absent
+ * trainerName              the name of the trainer in that file, trainer
+ * </pre>
+ * The jobs share one evaluation pool. A dataset is loaded once and its correlation matrices are computed once for all
+ * the jobs that use it, then released after the last of them. A line is appended to the report as soon as a job ends.
+ * The runner owns the evaluation pool, so it can run several sweeps and is closed once it is no longer needed.
+ */
+public final class BatchRunner implements AutoCloseable {
+    private static final Set<String> KEYS = Set.of("dataset", "label", "transfer", "correlation", "population", "stepSizeScaling",
+            "lambda", "worstNestProbability", "mutationRate", "delta", "iterations", "seed", "backend", "earlyAbort",
+            "trainerConfig", "trainerName");
+    private static final List<String> COLUMNS = List.of("job", "dataset", "transfer", "correlation", "backend", "seed", "status",
+            "seconds", "iterations", "bestScore", "featureCount", "features", "error");
+    private final ForkJoinPool evaluationPool;
+    private final Map<String, SharedDataset> datasets = new HashMap<>();
+
+    /**
+     * This record is used to hold the settings of a single search of the sweep
+     */
+    public record Job(int id, String dataset, String label, TransferFunction transfer, FitnessFunction.Correlation_Id correlation,
+                      int population, double stepSizeScaling, double lambda, double worstNestProbability, double mutationRate,
+                      double delta, int iterations, int seed, FitnessFunction.Backend backend, boolean earlyAbort,
+                      String trainerConfig, String trainerName) {
+        String datasetKey() {
+            return dataset + '\u0000' + label;
+        }
+    }
+
+    /**
+     * Constructs a runner whose jobs share the given number of evaluation threads
+     * @param evaluationThreads The number of worker threads of the shared evaluation pool
+     */
+    public BatchRunner(int evaluationThreads) {
+        this.evaluationPool = new ForkJoinPool(evaluationThreads);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2 || args.length > 4) {
+            throw new IllegalArgumentException("Usage: BatchRunner <job spec> <report.csv|report.jsonl> [concurrent jobs] [evaluation threads]");
+        }
+        List<Job> jobs = readSpec(Path.of(args[0]));
+        int concurrentJobs = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        int evaluationThreads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        Path reportPath = Path.of(args[1]);
+        try (Report report = new Report(Files.newBufferedWriter(reportPath, StandardCharsets.UTF_8), reportPath.toString().endsWith(".jsonl"));
+             BatchRunner runner = new BatchRunner(evaluationThreads)) {
+            runner.run(jobs, concurrentJobs, report);
+        }
+    }
+
+    /**
+     * This method is used to read and expand a job spec, every job is checked before any of them runs
+     * @param spec The path of the spec
+     * @return The jobs in the order of the spec
+     * @throws IOException If the spec cannot be read
+     */
+    public static List<Job> readSpec(Path spec) throws IOException {
+        List<Job> jobs = new ArrayList<>();
+        List<String> lines = Files.readAllLines(spec, StandardCharsets.UTF_8);
+        for (int number = 1; number <= lines.size(); number++) {
+            String line = lines.get(number - 1).strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            Map<String, String[]> values = new LinkedHashMap<>();
+            for (String token : line.split("\\s+")) {
+                int separator = token.indexOf('=');
+                String key = separator < 0 ? token : token.substring(0, separator);
+                if (separator < 0 || !KEYS.contains(key)) {
+                    throw new IllegalArgumentException("Invalid setting " + token + " on line " + number + " of " + spec);
+                }
+                values.put(key, token.substring(separator + 1).split(","));
+            }
+            if (!values.containsKey("dataset")) {
+                throw new IllegalArgumentException("No dataset on line " + number + " of " + spec);
+            }
+            expand(new ArrayList<>(values.entrySet()), 0, new HashMap<>(), jobs, number);
+        }
+        return jobs;
+    }
+
+    /**
+     * This method is used to add a job for every combination of the listed values, the last key varies fastest
+     */
+    private static void expand(List<Map.Entry<String, String[]>> values, int key, Map<String, String> settings, List<Job> jobs, int line) {
+        if (key == values.size()) {
+            try {
+                jobs.add(toJob(jobs.size() + 1, settings));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid job " + settings + " on line " + line + ": " + e.getMessage(), e);
+            }
+            return;
+        }
+        for (String value : values.get(key).getValue()) {
+            settings.put(values.get(key).getKey(), value);
+            expand(values, key + 1, settings, jobs, line);
+        }
+    }
+
+    private static Job toJob(int id, Map<String, String> settings) {
+        String correlation = settings.getOrDefault("correlation", FitnessFunction.Correlation_Id.PearsonsCorrelation.name());
+        return new Job(id,
+                settings.get("dataset"),
+                settings.getOrDefault("label", "Class"),
+                TransferFunction.valueOf(settings.getOrDefault("transfer", TransferFunction.V2.name())),
+                correlation.equals("None") ? null : FitnessFunction.Correlation_Id.valueOf(correlation),
+                Integer.parseInt(settings.getOrDefault("population", "20")),
+                Double.parseDouble(settings.getOrDefault("stepSizeScaling", "1.5")),
+                Double.parseDouble(settings.getOrDefault("lambda", "2.5")),
+                Double.parseDouble(settings.getOrDefault("worstNestProbability", "0.2")),
+                Double.parseDouble(settings.getOrDefault("mutationRate", "0.2")),
+                Double.parseDouble(settings.getOrDefault("delta", "1.5")),
+                Integer.parseInt(settings.getOrDefault("iterations", "10")),
+                Integer.parseInt(settings.getOrDefault("seed", "12345")),
+                FitnessFunction.Backend.valueOf(settings.getOrDefault("backend", FitnessFunction.Backend.Tribuo.name())),
+                Boolean.parseBoolean(settings.getOrDefault("earlyAbort", "false")),
+                settings.get("trainerConfig"),
+                settings.getOrDefault("trainerName", "trainer"));
+    }
+
+    /**
+     * This method is used to run the jobs, a failed search is reported and does not stop the others. A failure the
+     * report cannot hold, such as a report that cannot be written, is thrown once every job has ended
+     * @param jobs The jobs to run
+     * @param concurrentJobs The number of jobs running at the same time
+     * @param report The report receiving a line for every job
+     * @throws InterruptedException If interrupted while waiting for the jobs
+     */
+    public void run(List<Job> jobs, int concurrentJobs, Report report) throws InterruptedException {
+        if (concurrentJobs < 1) {
+            throw new IllegalArgumentException("The number of concurrent jobs must be positive, found " + concurrentJobs);
+        }
+        if (evaluationPool.isShutdown()) {
+            throw new IllegalStateException("The batch runner is closed");
+        }
+        synchronized (datasets) {
+            for (Job job : jobs) {
+                datasets.computeIfAbsent(job.datasetKey(), key -> new SharedDataset(job.dataset(), job.label())).remainingJobs++;
+            }
+        }
+        ExecutorService scheduler = Executors.newFixedThreadPool(concurrentJobs);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (Job job : jobs) {
+                results.add(scheduler.submit(() -> report.write(runJob(job))));
+            }
+            Throwable failure = null;
+            for (Future<?> result : results) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    } else {
+                        failure.addSuppressed(e.getCause());
+                    }
+                }
+            }
+            // A job only throws unchecked exceptions and errors
+            if (failure instanceof Error e) {
+                throw e;
+            } else if (failure != null) {
+                throw (RuntimeException) failure;
+            }
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * This method is used to shut the shared evaluation pool down, the runner cannot run jobs afterwards
+     */
+    @Override
+    public void close() {
+        evaluationPool.shutdown();
+    }
+
+    /**
+     * This method is used to run a single search over the shared dataset of the job
+     * @param job The job to run
+     * @return The values of the report columns
+     */
+    private Map<String, Object> runJob(Job job) {
+        SharedDataset shared;
+        synchronized (datasets) {
+            shared = datasets.get(job.datasetKey());
+        }
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("job", job.id());
+        row.put("dataset", job.dataset());
+        row.put("transfer", job.transfer());
+        row.put("correlation", job.correlation() == null ? "None" : job.correlation());
+        row.put("backend", job.backend());
+        row.put("seed", job.seed());
+        long start = System.nanoTime();
+        try {
+            Dataset<Label> dataset = shared.dataset();
+            CuckooSearchOptimizer optimizer = new CuckooSearchOptimizer(trainer(job), job.correlation(), job.transfer(), job.population(),
+                    job.stepSizeScaling(), job.lambda(), job.worstNestProbability(), job.mutationRate(), job.delta(), job.iterations(), job.seed());
+            optimizer.setEvaluationPool(evaluationPool);
+            optimizer.setEarlyAbort(job.earlyAbort());
+            optimizer.setFitnessBackend(job.backend());
+            if (job.correlation() != null) {
+                optimizer.setCorrelationMatrix(dataset, shared.correlationMatrix(job.correlation()));
+            }
+            optimizer.addListener(new SearchListener() {
+                @Override
+                public void onIteration(IterationMetrics metrics) { }
+
+                @Override
+                public void onSearchEnd(int iterations, double bestScore) {
+                    row.put("iterations", iterations);
+                    row.put("bestScore", bestScore);
+                }
+            });
+            SelectedFeatureSet selected = optimizer.select(dataset);
+            row.put("status", "ok");
+            row.put("featureCount", selected.featureNames().size());
+            row.put("features", String.join(";", selected.featureNames()));
+        } catch (IOException | RuntimeException e) {
+            row.put("status", "failed");
+            row.put("error", e.toString());
+        } finally {
+            row.put("seconds", (System.nanoTime() - start) / 1e9);
+            release(shared, job.datasetKey());
+        }
+        return row;
+    }
+
+    /**
+     * This method is used to drop a dataset and its correlation matrices once its last job has ended
+     */
+    private void release(SharedDataset shared, String key) {
+        synchronized (datasets) {
+            if (--shared.remainingJobs == 0) {
+                datasets.remove(key);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Trainer<Label> trainer(Job job) {
+        if (job.trainerConfig() != null) {
+            return (Trainer<Label>) new ConfigurationManager(job.trainerConfig()).lookup(job.trainerName());
+        }
+        return new KNNTrainer<>(1,
+                new L1Distance(),
+                Runtime.getRuntime().availableProcessors(),
+                new VotingCombiner(),
+                KNNModel.Backend.THREADPOOL,
+                NeighboursQueryFactoryType.BRUTE_FORCE);
+    }
+
+    /**
+     * A dataset shared by the jobs of the sweep, loaded by the first job that needs it
+     */
+    private static final class SharedDataset {
+        private final String path;
+        private final String label;
+        private final Map<FitnessFunction.Correlation_Id, CorrelationMatrix> correlationMatrices = new ConcurrentHashMap<>();
+        private Dataset<Label> dataset;
+        private int remainingJobs;
+
+        SharedDataset(String path, String label) {
+            this.path = path;
+            this.label = label;
+        }
+
+        synchronized Dataset<Label> dataset() throws IOException {
+            if (dataset == null) {
+                dataset = new MutableDataset<>(new CSVLoader<>(new LabelFactory()).loadDataSource(Path.of(path), label));
+            }
+            return dataset;
+        }
+
+        CorrelationMatrix correlationMatrix(FitnessFunction.Correlation_Id correlation) throws IOException {
+            Dataset<Label> data = dataset();
+            return correlationMatrices.computeIfAbsent(correlation, id ->
+                    CorrelationMatrix.compute(DataMatrix.fromDataset(data, new ImmutableFeatureMap(data.getFeatureMap())), id));
+        }
+    }
+
+    /**
+     * Writes one line for every ended job, as CSV with a header or as JSON lines, and flushes it at once so the
+     * results of a long sweep can be read while it runs
+     */
+    public static final class Report implements Closeable {
+        private final Writer writer;
+        private final boolean json;
+
+        /**
+         * Constructs a report writing to the given writer
+         * @param writer The destination of the report
+         * @param json True to write JSON lines, false to write CSV
+         */
+        public Report(Writer writer, boolean json) {
+            this.writer = writer;
+            this.json = json;
+            if (!json) {
+                writeLine(String.join(",", COLUMNS));
+            }
+        }
+
+        synchronized void write(Map<String, Object> row) {
+            StringJoiner line = json ? new StringJoiner(",", "{", "}") : new StringJoiner(",");
+            for (String column : COLUMNS) {
+                Object value = row.get(column);
+                if (json) {
+                    line.add("\"" + column + "\":" + jsonValue(value));
+                } else {
+                    line.add(csvValue(value));
+                }
+            }
+            writeLine(line.toString());
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+
+        private static String csvValue(Object value) {
+            if (value == null) {
+                return "";
+            }
+            String text = value.toString();
+            return text.matches(".*[,\"\\r\\n].*") ? "\"" + text.replace("\"", "\"\"") + "\"" : text;
+        }
+
+        /**
+         * JSON has no literal for NaN or the infinities so they are written as null like a missing value
+         */
+        private static String jsonValue(Object value) {
+            if (value == null || (value instanceof Double number && !Double.isFinite(number))) {
+                return "null";
+            }
+            if (value instanceof Number) {
+                return value.toString();
+            }
+            StringBuilder text = new StringBuilder("\"");
+            for (char c : value.toString().toCharArray()) {
+                switch (c) {
+                    case '"' -> text.append("\\\"");
+                    case '\\' -> text.append("\\\\");
+                    default -> {
+                        if (c < 0x20) {
+                            text.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                        } else {
+                            text.append(c);
+                        }
+                    }
+                }
+            }
+            return text.append('"').toString();
+        }
+
+        private void writeLine(String line) {
+            try {
+                writer.write(line);
+                writer.write(System.lineSeparator());
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write the batch report", e);
+            }
+        }
+    }
+}
@@ -33,8 +33,7 @@ public class MainClass {
                 20,
                 Trainer.DEFAULT_SEED);
 
-        var optimizer = new CuckooSearchOptimizer(dataPath,
-                learner,
+        var optimizer = new CuckooSearchOptimizer(learner,
                 FitnessFunction.Correlation_Id.PearsonsCorrelation,
                 TransferFunction.V2,
                 20,
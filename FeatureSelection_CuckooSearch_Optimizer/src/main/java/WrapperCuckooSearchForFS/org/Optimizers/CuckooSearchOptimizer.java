@@ -1,20 +1,33 @@
 package WrapperCuckooSearchForFS.org.Optimizers;
 
+import WrapperCuckooSearchForFS.org.Discreeting.BitGenome;
 import WrapperCuckooSearchForFS.org.Discreeting.TransferFunction;
+import WrapperCuckooSearchForFS.org.Evaluation.CorrelationMatrix;
+import WrapperCuckooSearchForFS.org.Evaluation.FeatureFilter;
 import WrapperCuckooSearchForFS.org.Evaluation.FitnessFunction;
+import WrapperCuckooSearchForFS.org.Evaluation.Objectives;
+import WrapperCuckooSearchForFS.org.Evaluation.SurrogateModel;
 import org.tribuo.*;
 import org.tribuo.classification.Label;
 import org.tribuo.classification.ensemble.VotingCombiner;
 import org.tribuo.common.nearest.KNNModel;
 import org.tribuo.common.nearest.KNNTrainer;
+import org.tribuo.dataset.SelectedFeatureDataset;
 import org.tribuo.math.distance.L1Distance;
 import org.tribuo.math.neighbour.NeighboursQueryFactoryType;
 import org.tribuo.provenance.FeatureSelectorProvenance;
+import org.tribuo.provenance.FeatureSetProvenance;
 import org.tribuo.provenance.impl.FeatureSelectorProvenanceImpl;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Select features based on Cuckoo Search algorithm with binary transfer functions, KNN classifier and 10-fold cross validation
@@ -36,11 +49,34 @@ public  final class CuckooSearchOptimizer implements FeatureSelector<Label> {
     private final double mutationRate;
     private final double delta;
     private final int populationSize;
-    private int [][] setOfSolutions;
+    private BitGenome[] setOfSolutions;
     private final FitnessFunction FN;
     private final int maxIteration;
     private final SplittableRandom rng;
     private final int seed;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private ForkJoinPool sharedPool;
+    private final List<SearchListener> listeners = new ArrayList<>();
+    private Path checkpointPath;
+    private int checkpointInterval = 1;
+    private Migration migration;
+    private int migrationInterval = 1;
+    private int migrants;
+    private SurrogateModel surrogate;
+    private StoppingPolicy stoppingPolicy;
+    private long searchStartNanos;
+    private long budgetNanos = Long.MAX_VALUE;
+    private long evaluationBase;
+    private long evaluationBudget = Long.MAX_VALUE;
+    private FeatureFilter featureFilter;
+    private int filterTopK;
+    private boolean biasedPopulation;
+    private double[] selectionProbabilities;
+    private boolean multiObjective;
+    private ParetoArchive paretoArchive;
+    private List<ParetoFeatureSet> paretoFront = List.of();
+    private double bestScore = Double.NaN;
+    private BitGenome[] initialPopulation;
 
     /**
      * The default constructor for feature selection based on Cuckoo Search Algorithm
@@ -115,6 +151,35 @@ public  final class CuckooSearchOptimizer implements FeatureSelector<Label> {
         this.rng = new SplittableRandom(seed);
     }
 
+    /**
+     * Constructs the wrapper feature selection based on cuckoo search algorithm, the correlation is computed from the
+     * examples of the dataset given to {@link #select(Dataset)}
+     * @param trainer The used trainer in the evaluation process
+     * @param correlation_id The used correlation function in the evaluation process
+     * @param transferFunction The transfer function to convert continuous values to binary ones
+     * @param populationSize The size of the solution in the initial population
+     * @param stepSizeScaling The cuckoo step size
+     * @param lambda The lambda of the levy flight function
+     * @param worstNestProbability The fraction of the nests to be abandoned
+     * @param mutationRate
+     * @param delta The delta that is used in the abandon nest function
+     * @param maxIteration The number of times that is used to enhance generation
+     * @param seed This seed is required for the SplittableRandom
+     */
+    public CuckooSearchOptimizer(Trainer<Label> trainer, FitnessFunction.Correlation_Id correlation_id, TransferFunction transferFunction, int populationSize, double stepSizeScaling, double lambda, double worstNestProbability, double mutationRate, double delta, int maxIteration, int seed) {
+        this.transferFunction = transferFunction;
+        this.populationSize = populationSize;
+        FN = new FitnessFunction(trainer, correlation_id);
+        this.stepSizeScaling = stepSizeScaling;
+        this.lambda = lambda;
+        this.worstNestProbability = worstNestProbability;
+        this.mutationRate = mutationRate;
+        this.delta = delta;
+        this.maxIteration = maxIteration;
+        this.seed = seed;
+        this.rng = new SplittableRandom(seed);
+    }
+
     /**
      * Constructs the wrapper feature selection based on cuckoo search algorithm
      * @param dataPath The path of the dataset
@@ -149,14 +214,23 @@ public  final class CuckooSearchOptimizer implements FeatureSelector<Label> {
      * @param totalNumberOfFeatures The number of features in the given dataset
      * @return The population of subsets of selected features
      */
-    private int[][] GeneratePopulation(int totalNumberOfFeatures) {
-        setOfSolutions = new int[this.populationSize][totalNumberOfFeatures];
-        for (int[] subSet : setOfSolutions) {
-            int[] values = new int[subSet.length];
-            for (int i = 0; i < values.length; i++) {
-                values[i] = rng.nextInt(2);
+    private BitGenome[] GeneratePopulation(int totalNumberOfFeatures) {
+        setOfSolutions = new BitGenome[this.populationSize];
+        for (int i = 0; i < setOfSolutions.length; i++) {
+            if (initialPopulation != null && i < initialPopulation.length) {
+                if (initialPopulation[i].length() != totalNumberOfFeatures) {
+                    throw new IllegalArgumentException("The initial population covers " + initialPopulation[i].length() +
+                            " features, the searched dataset has " + totalNumberOfFeatures);
+                }
+                setOfSolutions[i] = initialPopulation[i].copy();
+                continue;
+            }
+            setOfSolutions[i] = new BitGenome(totalNumberOfFeatures);
+            if (selectionProbabilities != null) {
+                setOfSolutions[i].randomize(selectionProbabilities, rng);
+            } else {
+                setOfSolutions[i].randomize(rng);
             }
-            System.arraycopy(values, 0, subSet, 0, setOfSolutions[0].length);
         }
         return setOfSolutions;
     }
@@ -171,47 +245,458 @@ public  final class CuckooSearchOptimizer implements FeatureSelector<Label> {
         return true;
     }
 
+    /**
+     * This method is used to set the number of threads that evaluate the candidate solutions of a generation
+     * @param parallelism The number of worker threads of the evaluation pool
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be positive, found " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * This method is used to evaluate the candidates in a pool shared with other searches instead of a pool of
+     * {@code parallelism} threads created for every search, the pool is left running when the search ends
+     * @param sharedPool The pool of the evaluation threads, or null to create one for every search
+     */
+    public void setEvaluationPool(ForkJoinPool sharedPool) {
+        this.sharedPool = sharedPool;
+    }
+
+    /**
+     * This method is used to reuse the correlation matrix of a dataset that was computed for another search with the
+     * same correlation, the pre-filter must be disabled as the matrix only applies to the given dataset
+     * @param dataset The dataset the matrix was computed from
+     * @param correlationMatrix The correlation matrix of all features of the dataset
+     */
+    public void setCorrelationMatrix(Dataset<Label> dataset, CorrelationMatrix correlationMatrix) {
+        FN.setCorrelationMatrix(dataset, correlationMatrix);
+    }
+
+    /**
+     * This method is used to stop the cross validation of a candidate once it can no longer beat the solution it is
+     * compared with, which saves folds without changing which solution wins. The candidates that pass the screening
+     * of a surrogate are always cross validated over every fold as the surrogate learns from their exact scores.
+     * @param earlyAbort True to enable racing of the candidates
+     */
+    public void setEarlyAbort(boolean earlyAbort) {
+        FN.setEarlyAbort(earlyAbort);
+    }
+
+    /**
+     * This method is used to choose how the fitness function cross validates a candidate
+     * @param backend The implementation of the cross validation
+     */
+    public void setFitnessBackend(FitnessFunction.Backend backend) {
+        FN.setBackend(backend);
+    }
+
+    /**
+     * This method is used to bound the number of subsets whose fitness scores are remembered across generations
+     * @param cacheSize The maximum number of subsets to remember, 0 disables the cache
+     */
+    public void setFitnessCacheSize(int cacheSize) {
+        FN.setCacheSize(cacheSize);
+    }
+
+    /**
+     * This method is used to register a listener that receives the metrics of every generation
+     * @param listener The listener to notify
+     */
+    public void addListener(SearchListener listener) {
+        listeners.add(Objects.requireNonNull(listener));
+    }
+
+    /**
+     * This method is used to save the state of the search every given number of generations so a long run can be
+     * continued with {@link #resume(Dataset, Path)} after a crash
+     * @param checkpointPath The path of the checkpoint file, or null to disable checkpointing
+     * @param checkpointInterval The number of generations between two checkpoints
+     */
+    public void setCheckpoint(Path checkpointPath, int checkpointInterval) {
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("The checkpoint interval must be positive, found " + checkpointInterval);
+        }
+        this.checkpointPath = checkpointPath;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * This method is used to make this population an island of an island-model search, every given number of
+     * generations its best nests are sent to the other islands and the immigrants replace its worst nests when they
+     * score better
+     * @param migration The exchange with the other islands, or null to evolve the population alone
+     * @param migrationInterval The number of generations between two migrations
+     * @param migrants The number of nests sent at every migration
+     */
+    public void setMigration(Migration migration, int migrationInterval, int migrants) {
+        if (migrationInterval < 1 || migrants < 0) {
+            throw new IllegalArgumentException("Invalid migration of " + migrants + " nests every " + migrationInterval + " generations");
+        }
+        this.migration = migration;
+        this.migrationInterval = migrationInterval;
+        this.migrants = migrants;
+    }
+
+    /**
+     * This method is used to screen the candidates with a surrogate of the fitness function so only the promising ones
+     * are cross validated, no candidate is cross validated once the search made as many cross validation runs as the
+     * budget of the surrogate allows and the search then ends after the current generation
+     * @param surrogate The surrogate, or null to evaluate every candidate
+     */
+    public void setSurrogate(SurrogateModel surrogate) {
+        this.surrogate = surrogate;
+    }
+
+    /**
+     * This method is used to end the search before {@code maxIteration} generations, the policy is checked before
+     * every generation and the best subset found so far is returned once it fires, its time budget is also checked
+     * before every evaluation of a generation
+     * @param stoppingPolicy The policy, see {@link StoppingPolicy#anyOf} to combine several, or null to run every generation
+     */
+    public void setStoppingPolicy(StoppingPolicy stoppingPolicy) {
+        this.stoppingPolicy = stoppingPolicy;
+    }
+
+    /**
+     * This method is used to score every feature with a filter measure before the search and only search the best
+     * ones, which makes every cross validation of a candidate cheaper on datasets with many features
+     * @param featureFilter The filter measure, or null to search every feature
+     * @param topK The number of best scoring features to search
+     * @param biasedPopulation True to select a feature of the initial population with a probability growing with its
+     *                         filter score, from 0.1 for the lowest score to 0.9 for the highest one
+     */
+    public void setPreFilter(FeatureFilter featureFilter, int topK, boolean biasedPopulation) {
+        if (topK < 1) {
+            throw new IllegalArgumentException("The number of features to keep must be positive, found " + topK);
+        }
+        this.featureFilter = featureFilter;
+        this.filterTopK = topK;
+        this.biasedPopulation = biasedPopulation;
+    }
+
+    /**
+     * This method is used to keep the Pareto front of accuracy, feature count and redundancy over every subset the
+     * search evaluates, so a single search gives the trade-offs the weighted fitness score would need several runs
+     * with different weights to find. The nests still compete on the weighted score, every candidate is cross
+     * validated over all folds and neither racing nor the surrogate screening are applied.
+     * @param multiObjective True to archive the Pareto front, see {@link #getParetoFront()}
+     */
+    public void setMultiObjective(boolean multiObjective) {
+        this.multiObjective = multiObjective;
+    }
+
+    /**
+     * @return The Pareto front of the last search sorted by feature count and then by decreasing accuracy, empty if
+     * the search was not multi-objective
+     */
+    public List<ParetoFeatureSet> getParetoFront() {
+        return paretoFront;
+    }
+
+    /**
+     * @return The fitness score of the subset returned by the last search, NaN before the first one
+     */
+    public double getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * This method is used to warm-start the next searches from the nests of an earlier one, such as the population
+     * of the previous day before new rows were added to the dataset, the nests are scored again on the given dataset
+     * and the missing ones are drawn at random. Together with a lower {@code maxIteration} or a stopping policy this
+     * turns a re-selection into a short refinement of the previous one.
+     * @param initialPopulation The nests over the features of the searched dataset, see {@link #getPopulation()}
+     *                          and {@link SearchCheckpoint#population()}, or null to start from a random population
+     */
+    public void setInitialPopulation(BitGenome[] initialPopulation) {
+        this.initialPopulation = initialPopulation == null ? null : Arrays.stream(initialPopulation).map(BitGenome::copy).toArray(BitGenome[]::new);
+    }
+
+    /**
+     * @return A copy of the nests at the end of the last search, empty before the first one
+     */
+    public BitGenome[] getPopulation() {
+        return setOfSolutions == null ? new BitGenome[0] : Arrays.stream(setOfSolutions).map(BitGenome::copy).toArray(BitGenome[]::new);
+    }
+
     /**
      * Selects features according to this selection algorithm from the specified dataset.
+     * <p>
+     * Every nest of a generation is evolved from a snapshot of the population taken at the start of the generation
+     * using its own random stream split from the generation's {@link SplittableRandom}, so the nests are evaluated
+     * concurrently and the result for a given seed does not depend on the number of threads.
      * @param dataset The dataset to use.
      * @return A selected feature set.
      */
     @Override
     public SelectedFeatureSet select(Dataset<Label> dataset) {
-        ImmutableFeatureMap FMap = new ImmutableFeatureMap(dataset.getFeatureMap());
-        setOfSolutions = GeneratePopulation(dataset.getFeatureMap().size());
-        List<CuckooSearchFeatureSet> subSet_fScores = new ArrayList<>();
-        SelectedFeatureSet selectedFeatureSet = null;
-        for (int i = 0; i < maxIteration; i++) {
-            for (int solution = 0; solution < setOfSolutions.length; solution++) {
-                AtomicInteger subSet = new AtomicInteger(solution);
-                // Update the solution based on the levy flight function
-                int[] evolvedSolution = Arrays.stream(setOfSolutions[subSet.get()]).map(x -> (int) transferFunction.
-                        applyAsDouble(x + stepSizeScaling * Math.pow(subSet.get() + 1, -lambda))).toArray();
-                int[] randomCuckoo = setOfSolutions[rng.nextInt(setOfSolutions.length)];
-                keepBestAfterEvaluation(dataset, FMap, evolvedSolution, randomCuckoo);
-                // Update the solution based on the abandone nest function
-                if (new Random().nextDouble() < worstNestProbability) {
-                    int r1 = rng.nextInt(setOfSolutions.length);
-                    int r2 = rng.nextInt(setOfSolutions.length);
-                    for (int j = 0; j < setOfSolutions[subSet.get()].length; j++) {
-                        evolvedSolution[j] = (int) transferFunction.
-                                applyAsDouble(setOfSolutions[subSet.get()][j] +
-                                delta * (setOfSolutions[r1][j] - setOfSolutions[r2][j]));
-                    }
-                    keepBestAfterEvaluation(dataset, FMap, evolvedSolution, setOfSolutions[subSet.get()]);
-                    }
-                // Update the solution based on mutation operator
-                int[] mutedSolution = mutation(setOfSolutions[subSet.get()]);
-                keepBestAfterEvaluation(dataset, FMap, mutedSolution, setOfSolutions[subSet.get()]);
+        long searchStart = System.nanoTime();
+        Dataset<Label> searched = preFilter(dataset);
+        ImmutableFeatureMap FMap = new ImmutableFeatureMap(searched.getFeatureMap());
+        FN.clearCache();
+        long evaluationsBefore = FN.getCacheMisses();
+        startClock(searchStart);
+        setOfSolutions = GeneratePopulation(FMap.size());
+        paretoArchive = multiObjective ? new ParetoArchive(FMap.size()) : null;
+        ForkJoinPool evaluationPool = sharedPool != null ? sharedPool : new ForkJoinPool(parallelism);
+        try {
+            NestEvaluations[] initial = Stream.generate(NestEvaluations::new).limit(setOfSolutions.length).toArray(NestEvaluations[]::new);
+            double[] scores = runInPool(evaluationPool, () -> IntStream.range(0, setOfSolutions.length).parallel().
+                    mapToDouble(nest -> evaluate(searched, FMap, setOfSolutions[nest], Double.NEGATIVE_INFINITY, initial[nest])).toArray());
+            if (paretoArchive != null) {
+                for (NestEvaluations evaluated : initial) {
+                    evaluated.archived.forEach(entry -> paretoArchive.add(entry.subSet(), entry.objectives()));
+                }
             }
-            Arrays.stream(setOfSolutions).map(subSet -> new CuckooSearchFeatureSet(subSet,
-                    FN.EvaluateSolution(this, dataset, FMap, subSet))).
-                    forEach(subSet_fScores::add);
-            subSet_fScores.sort(Comparator.comparing(CuckooSearchFeatureSet::score).reversed());
-            selectedFeatureSet = FN.getSFS(this, dataset, FMap, subSet_fScores.get(0).subSet);
+            if (surrogate != null) {
+                surrogate.reset(FMap.size());
+                for (int nest = 0; nest < scores.length; nest++) {
+                    surrogate.update(setOfSolutions[nest], scores[nest]);
+                }
+            }
+            CuckooSearchFeatureSet best = bestOf(null, scores);
+            SearchCheckpoint start = new SearchCheckpoint(0, rng.nextLong(), setOfSolutions, scores, best.subSet(), best.score(),
+                    surrogate == null ? new double[0] : surrogate.getState(), new double[]{best.score()},
+                    FN.getCacheMisses() - evaluationsBefore, paretoArchive == null ? List.of() : paretoArchive.front());
+            return search(searched, dataset, FMap, evaluationPool, start, searchStart);
+        } finally {
+            if (evaluationPool != sharedPool) {
+                evaluationPool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * This method is used to continue a search from a checkpoint written by {@link #setCheckpoint(Path, int)}, the
+     * optimizer must be configured as the one that wrote it and then gives the same result as an uninterrupted run
+     * @param dataset The dataset to use
+     * @param checkpoint The path of the checkpoint file
+     * @return A selected feature set
+     * @throws IOException If the checkpoint cannot be read
+     */
+    public SelectedFeatureSet resume(Dataset<Label> dataset, Path checkpoint) throws IOException {
+        long searchStart = System.nanoTime();
+        SearchCheckpoint state = SearchCheckpoint.read(checkpoint);
+        Dataset<Label> searched = preFilter(dataset);
+        ImmutableFeatureMap FMap = new ImmutableFeatureMap(searched.getFeatureMap());
+        if (state.featureCount() != FMap.size() || state.population().length != populationSize) {
+            throw new IllegalArgumentException("The checkpoint holds " + state.population().length + " nests over " +
+                    state.featureCount() + " features, expected " + populationSize + " nests over " + FMap.size() + " features");
+        }
+        FN.clearCache();
+        startClock(searchStart);
+        if (surrogate != null) {
+            if (state.surrogateState().length != state.featureCount() + 3) {
+                throw new IllegalArgumentException("The checkpoint was written without the surrogate of this optimizer");
+            }
+            surrogate.setState(state.surrogateState());
+        }
+        paretoArchive = multiObjective ? new ParetoArchive(FMap.size()) : null;
+        if (paretoArchive != null) {
+            state.paretoFront().forEach(entry -> paretoArchive.add(entry.subSet(), entry.objectives()));
+        }
+        ForkJoinPool evaluationPool = sharedPool != null ? sharedPool : new ForkJoinPool(parallelism);
+        try {
+            return search(searched, dataset, FMap, evaluationPool, state, searchStart);
+        } finally {
+            if (evaluationPool != sharedPool) {
+                evaluationPool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * This method is used to run the generations of the search from the given state of the population
+     * @param dataset The dataset to search, restricted to the features kept by the pre-filter
+     * @param source The dataset given to select or resume, recorded in the provenance of the result
+     * @param FMap The map of selected features
+     * @param evaluationPool The pool that evaluates the candidate solutions
+     * @param start The state of the search, its population becomes the current one
+     * @param searchStart The time at which this call of select or resume started
+     * @return A selected feature set
+     */
+    private SelectedFeatureSet search(Dataset<Label> dataset, Dataset<Label> source, ImmutableFeatureMap FMap, ForkJoinPool evaluationPool,
+                                      SearchCheckpoint start, long searchStart) {
+        setOfSolutions = start.population();
+        double[] scores = start.scores();
+        CuckooSearchFeatureSet best = new CuckooSearchFeatureSet(start.best(), start.bestScore());
+        long stateSeed = start.stateSeed();
+        int historyLength = start.bestScores().length;
+        double[] bestScores = Arrays.copyOf(start.bestScores(), historyLength + Math.max(0, maxIteration - start.iteration()));
+        long evaluations = start.evaluations();
+        evaluationBase = FN.getCacheMisses() - evaluations;
+        evaluationBudget = surrogate == null ? Long.MAX_VALUE : surrogate.getEvaluationBudget();
+        long lastIterationNanos = System.nanoTime() - searchStart;
+        int iterations = start.iteration();
+        for (int i = start.iteration(); i < maxIteration; i++) {
+            long iterationStart = System.nanoTime();
+            if (evaluations >= evaluationBudget || (stoppingPolicy != null && stoppingPolicy.shouldStop(
+                    new SearchProgress(i, Arrays.copyOf(bestScores, historyLength), evaluations, iterationStart - searchStart, lastIterationNanos)))) {
+                break;
+            }
+            long evaluationsBefore = FN.getEvaluationCount();
+            long cacheHitsBefore = FN.getCacheHits();
+            long trainingBefore = FN.getTrainingNanos();
+            long correlationBefore = FN.getCorrelationNanos();
+            BitGenome[] generation = Arrays.stream(setOfSolutions).map(BitGenome::copy).toArray(BitGenome[]::new);
+            double[] generationScores = scores.clone();
+            // Each generation draws from a stream rebuilt from a single seed so a checkpoint can restore it
+            SplittableRandom generationRng = new SplittableRandom(stateSeed);
+            SplittableRandom[] nestRngs = new SplittableRandom[generation.length];
+            for (int nest = 0; nest < nestRngs.length; nest++) {
+                nestRngs[nest] = generationRng.split();
+            }
+            stateSeed = generationRng.nextLong();
+            List<NestUpdate> updates = runInPool(evaluationPool, () -> IntStream.range(0, generation.length).parallel().
+                    mapToObj(nest -> evolveNest(dataset, FMap, generation, generationScores, nest, nestRngs[nest])).
+                    toList());
+            long rescoringStart = System.nanoTime();
+            for (NestUpdate update : updates) {
+                setOfSolutions[update.nest()] = update.solution();
+                scores[update.nest()] = update.score();
+            }
+            // The levy flight candidate replaces a random nest if it beats that nest after its own update
+            for (NestUpdate update : updates) {
+                if (update.levyScore() > scores[update.randomNest()]) {
+                    setOfSolutions[update.randomNest()] = update.levySolution().copy();
+                    scores[update.randomNest()] = update.levyScore();
+                }
+            }
+            // The surrogate and the archive learn in nest order once the generation is over so they are the same for
+            // every thread count
+            if (surrogate != null) {
+                for (NestUpdate update : updates) {
+                    update.evaluated().forEach(observation -> surrogate.update(observation.subSet(), observation.score()));
+                }
+            }
+            if (paretoArchive != null) {
+                for (NestUpdate update : updates) {
+                    update.archived().forEach(entry -> paretoArchive.add(entry.subSet(), entry.objectives()));
+                }
+            }
+            if (migration != null && (i + 1) % migrationInterval == 0 && i + 1 < maxIteration) {
+                migrate(i + 1, scores);
+            }
+            best = bestOf(best, scores);
+            bestScores[historyLength++] = best.score();
+            evaluations = FN.getCacheMisses() - evaluationBase;
+            long iterationEnd = System.nanoTime();
+            lastIterationNanos = iterationEnd - iterationStart;
+            if (checkpointPath != null && (i + 1) % checkpointInterval == 0) {
+                writeCheckpoint(new SearchCheckpoint(i + 1, stateSeed, setOfSolutions, scores, best.subSet(), best.score(),
+                        surrogate == null ? new double[0] : surrogate.getState(), Arrays.copyOf(bestScores, historyLength), evaluations,
+                        paretoArchive == null ? List.of() : paretoArchive.front()));
+            }
+            if (!listeners.isEmpty()) {
+                IterationMetrics metrics = new IterationMetrics(i + 1, best.score(), Arrays.stream(scores).average().orElse(Double.NaN),
+                        best.subSet().cardinality(),
+                        updates.stream().mapToLong(NestUpdate::levyFlightNanos).sum(),
+                        updates.stream().mapToLong(NestUpdate::abandonNestNanos).sum(),
+                        updates.stream().mapToLong(NestUpdate::mutationNanos).sum(),
+                        iterationEnd - rescoringStart,
+                        iterationEnd - iterationStart,
+                        FN.getEvaluationCount() - evaluationsBefore,
+                        FN.getCacheHits() - cacheHitsBefore,
+                        FN.getTrainingNanos() - trainingBefore,
+                        FN.getCorrelationNanos() - correlationBefore,
+                        updates.stream().mapToInt(NestUpdate::screened).sum());
+                listeners.forEach(listener -> listener.onIteration(metrics));
+            }
+            iterations = i + 1;
+        }
+        if (migration != null) {
+            migration.finish(iterations);
+        }
+        for (SearchListener listener : listeners) {
+            listener.onSearchEnd(iterations, best.score());
+        }
+        bestScore = best.score();
+        paretoFront = paretoArchive == null ? List.of() : paretoArchive.front().stream().
+                map(entry -> new ParetoFeatureSet(FN.getSFS(this, source, FMap, entry.subSet()), entry.objectives())).toList();
+        return FN.getSFS(this, source, FMap, best.subSet());
+    }
+
+    /**
+     * This method is used to keep the best features according to the pre-filter and to derive the selection
+     * probabilities of the initial population from their filter scores
+     * @param dataset The dataset given to select or resume
+     * @return The dataset restricted to the kept features, or the given dataset if every feature is kept
+     */
+    private Dataset<Label> preFilter(Dataset<Label> dataset) {
+        selectionProbabilities = null;
+        if (featureFilter == null) {
+            return dataset;
+        }
+        ImmutableFeatureMap fullMap = new ImmutableFeatureMap(dataset.getFeatureMap());
+        double[] filterScores = featureFilter.score(dataset, fullMap);
+        // Features ordered from the highest score to the lowest, lower ids win ties
+        int[] order = IntStream.range(0, filterScores.length).boxed().
+                sorted((a, b) -> Double.compare(filterScores[b], filterScores[a])).mapToInt(Integer::intValue).toArray();
+        Dataset<Label> searched = dataset;
+        if (filterTopK < order.length) {
+            List<String> names = new ArrayList<>();
+            List<Double> kept = new ArrayList<>();
+            for (int k = 0; k < filterTopK; k++) {
+                names.add(fullMap.get(order[k]).getName());
+                kept.add(filterScores[order[k]]);
+            }
+            SelectedFeatureSet topFeatures = new SelectedFeatureSet(names, kept, true,
+                    new FeatureSetProvenance(SelectedFeatureSet.class.getName(), dataset.getProvenance(), getProvenance()));
+            searched = new SelectedFeatureDataset<>(dataset, topFeatures);
+        }
+        if (biasedPopulation) {
+            ImmutableFeatureMap FMap = new ImmutableFeatureMap(searched.getFeatureMap());
+            double lowest = filterScores[order[Math.min(filterTopK, order.length) - 1]];
+            double range = filterScores[order[0]] - lowest;
+            selectionProbabilities = new double[FMap.size()];
+            for (int i = 0; i < selectionProbabilities.length; i++) {
+                double score = filterScores[fullMap.getID(FMap.get(i).getName())];
+                selectionProbabilities[i] = range > 0 ? 0.1 + 0.8 * (score - lowest) / range : 0.5;
+            }
+        }
+        return searched;
+    }
+
+    /**
+     * This method is used to send the best nests to the other islands and let the immigrants replace the worst ones
+     * @param iteration The number of completed generations
+     * @param scores The fitness scores of the population
+     */
+    private void migrate(int iteration, double[] scores) {
+        // Nests ordered from the best to the worst, earlier nests win ties
+        int[] order = IntStream.range(0, scores.length).boxed().
+                sorted((a, b) -> Double.compare(scores[b], scores[a])).mapToInt(Integer::intValue).toArray();
+        List<CuckooSearchFeatureSet> emigrants = new ArrayList<>();
+        for (int k = 0; k < Math.min(migrants, order.length); k++) {
+            emigrants.add(new CuckooSearchFeatureSet(setOfSolutions[order[k]].copy(), scores[order[k]]));
+        }
+        List<CuckooSearchFeatureSet> immigrants = migration.exchange(iteration, emigrants);
+        for (int k = 0; k < Math.min(immigrants.size(), order.length); k++) {
+            int nest = order[order.length - 1 - k];
+            CuckooSearchFeatureSet immigrant = immigrants.get(k);
+            if (immigrant.subSet().length() != setOfSolutions[nest].length()) {
+                throw new IllegalStateException("The immigrant has " + immigrant.subSet().length() + " features, expected " + setOfSolutions[nest].length());
+            }
+            if (immigrant.score() > scores[nest]) {
+                setOfSolutions[nest] = immigrant.subSet().copy();
+                scores[nest] = immigrant.score();
+            }
+        }
+    }
+
+    /**
+     * This method is used to save the given state to the checkpoint file
+     * @param checkpoint The state of the search after a completed generation
+     */
+    private void writeCheckpoint(SearchCheckpoint checkpoint) {
+        try {
+            checkpoint.write(checkpointPath);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the checkpoint " + checkpointPath, e);
         }
-        return selectedFeatureSet;
     }
 
     @Override
@@ -219,17 +704,150 @@ public  final class CuckooSearchOptimizer implements FeatureSelector<Label> {
         return new FeatureSelectorProvenanceImpl(this);
     }
 
+    /**
+     * This method is used to evolve a single nest of the given generation through the levy flight, abandon nest
+     * and mutation operators
+     * @param dataset The dataset to use
+     * @param FMap The map of selected features
+     * @param generation The snapshot of the population at the start of the generation
+     * @param generationScores The fitness scores of the snapshot
+     * @param nest The index of the nest to evolve
+     * @param nestRng The random stream of the nest
+     * @return The evolved nest together with the levy flight candidate
+     */
+    private NestUpdate evolveNest(Dataset<Label> dataset, ImmutableFeatureMap FMap, BitGenome[] generation, double[] generationScores, int nest, SplittableRandom nestRng) {
+        // Update the solution based on the levy flight function
+        long levyStart = System.nanoTime();
+        double levyStep = stepSizeScaling * Math.pow(nest + 1, -lambda);
+        BitGenome levySolution = new BitGenome(generation[nest].length());
+        generation[nest].transfer(transferFunction, levyStep, levySolution);
+        int randomNest = nestRng.nextInt(generation.length);
+        NestEvaluations evaluations = new NestEvaluations();
+        // The random nest only improves during the generation so its snapshot score is a safe bar for early abort
+        double levyScore = isOverBudget() ? Double.NEGATIVE_INFINITY : evaluate(dataset, FMap, levySolution, generationScores[randomNest], evaluations);
+        BitGenome solution = generation[nest].copy();
+        BitGenome candidate = new BitGenome(solution.length());
+        double score = generationScores[nest];
+        // Update the solution based on the abandon nest function
+        long abandonStart = System.nanoTime();
+        if (nestRng.nextDouble() < worstNestProbability) {
+            int r1 = nestRng.nextInt(generation.length);
+            int r2 = nestRng.nextInt(generation.length);
+            solution.abandonNest(transferFunction, delta, generation[r1], generation[r2], candidate);
+            score = keepBestAfterEvaluation(dataset, FMap, candidate, solution, score, evaluations);
+        }
+        // Update the solution based on mutation operator
+        long mutationStart = System.nanoTime();
+        mutation(solution, candidate, nestRng);
+        score = keepBestAfterEvaluation(dataset, FMap, candidate, solution, score, evaluations);
+        long end = System.nanoTime();
+        return new NestUpdate(nest, solution, score, levySolution, levyScore, randomNest,
+                abandonStart - levyStart, mutationStart - abandonStart, end - mutationStart,
+                evaluations.evaluated, evaluations.archived, evaluations.screened);
+    }
+
     /**
      * @param dataset The dataset to use
      * @param FMap The map of selected features
      * @param alteredSolution The modified solution
-     * @param oldSolution The old solution
+     * @param oldSolution The old solution, overwritten by the modified one if it scores better
+     * @param scoreOfSolution The fitness score of the old solution
+     * @param evaluations The candidates evaluated for the current nest
+     * @return The fitness score of the solution that is kept, the old one once the time budget has passed
      */
-    private void keepBestAfterEvaluation(Dataset<Label> dataset, ImmutableFeatureMap FMap, int[] alteredSolution, int[] oldSolution) {
-        double scoreOfModifiedSolution = FN.EvaluateSolution(this, dataset, FMap, alteredSolution);
-        double scoreOfSolution = FN.EvaluateSolution(this, dataset, FMap, oldSolution);
+    private double keepBestAfterEvaluation(Dataset<Label> dataset, ImmutableFeatureMap FMap, BitGenome alteredSolution, BitGenome oldSolution, double scoreOfSolution, NestEvaluations evaluations) {
+        if (isOverBudget()) {
+            return scoreOfSolution;
+        }
+        double scoreOfModifiedSolution = evaluate(dataset, FMap, alteredSolution, scoreOfSolution, evaluations);
         if (scoreOfModifiedSolution > scoreOfSolution) {
-            System.arraycopy(alteredSolution, 0, oldSolution, 0, alteredSolution.length);
+            oldSolution.copyFrom(alteredSolution);
+            return scoreOfModifiedSolution;
+        }
+        return scoreOfSolution;
+    }
+
+    /**
+     * This method is used to evaluate a candidate unless the surrogate is confident that it cannot beat the bar, in
+     * multi-objective mode every candidate is fully evaluated and offered to the Pareto archive
+     * @param dataset The dataset to use
+     * @param FMap The map of selected features
+     * @param candidate The subset of features to evaluate
+     * @param bar The fitness score the candidate has to beat
+     * @param evaluations The candidates evaluated for the current nest
+     * @return The fitness score of the candidate, or negative infinity if it was screened out
+     */
+    private double evaluate(Dataset<Label> dataset, ImmutableFeatureMap FMap, BitGenome candidate, double bar, NestEvaluations evaluations) {
+        if (paretoArchive != null) {
+            Objectives objectives = FN.EvaluateObjectives(this, dataset, FMap, candidate);
+            evaluations.archived.add(new ParetoArchive.Entry(candidate.copy(), objectives));
+            double score = objectives.weightedScore(FMap.size());
+            evaluations.evaluated.add(new CuckooSearchFeatureSet(candidate.copy(), score));
+            return score;
+        }
+        if (surrogate == null) {
+            return FN.EvaluateSolution(this, dataset, FMap, candidate, bar);
+        }
+        if (surrogate.rejects(candidate, bar)) {
+            evaluations.screened++;
+            return Double.NEGATIVE_INFINITY;
+        }
+        // The surrogate only learns from exact scores, with a bar the score of a loser would be an upper bound or
+        // the exact score depending on whether another thread already put it in the cache
+        double score = FN.EvaluateSolution(this, dataset, FMap, candidate);
+        evaluations.evaluated.add(new CuckooSearchFeatureSet(candidate.copy(), score));
+        return score;
+    }
+
+    /**
+     * This method is used to start measuring the time budget of the stopping policy
+     * @param searchStart The time at which the current call of select or resume started
+     */
+    private void startClock(long searchStart) {
+        searchStartNanos = searchStart;
+        budgetNanos = stoppingPolicy == null ? Long.MAX_VALUE : stoppingPolicy.budgetNanos();
+    }
+
+    /**
+     * @return True if the time budget of the stopping policy has passed or the search made as many cross validation
+     * runs as the surrogate allows, the candidates are then no longer evaluated
+     */
+    private boolean isOverBudget() {
+        return System.nanoTime() - searchStartNanos > budgetNanos || FN.getCacheMisses() - evaluationBase >= evaluationBudget;
+    }
+
+    /**
+     * This method is used to keep the best subset found so far
+     * @param best The best subset of the previous generations, or null before the first one
+     * @param scores The fitness scores of the current population
+     * @return The best subset so far, earlier subsets win ties
+     */
+    private CuckooSearchFeatureSet bestOf(CuckooSearchFeatureSet best, double[] scores) {
+        for (int nest = 0; nest < scores.length; nest++) {
+            if (best == null || scores[nest] > best.score()) {
+                best = new CuckooSearchFeatureSet(setOfSolutions[nest].copy(), scores[nest]);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * This method is used to run the given task inside the evaluation pool so parallel streams use its workers
+     * @param evaluationPool The pool of the current search
+     * @param task The task to run
+     * @return The result of the task
+     */
+    private static <R> R runInPool(ForkJoinPool evaluationPool, Callable<R> task) {
+        try {
+            return evaluationPool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while evaluating the population", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Failed to evaluate the population", e.getCause());
         }
     }
 
@@ -242,15 +860,40 @@ public  final class CuckooSearchOptimizer implements FeatureSelector<Label> {
      * "A Genetic Algorithm Programming Environment: Splicer", 1991.
      * </pre>
      * @param currentSolution The solution to be altered by the mutation operator
-     * @return The altered solution after mutation
+     * @param mutedSolution The genome receiving the altered solution after mutation
+     * @param nestRng The random stream of the nest that is mutated
      */
-    private int[] mutation(int[] currentSolution) {
-        return Arrays.stream(currentSolution).
-                map(x -> ThreadLocalRandom.current().nextDouble() < mutationRate ? 1 - x : x).toArray();
+    private void mutation(BitGenome currentSolution, BitGenome mutedSolution, SplittableRandom nestRng) {
+        mutedSolution.copyFrom(currentSolution);
+        mutedSolution.mutate(mutationRate, nestRng);
     }
 
     /**
      * This record is used to hold subset of features with its corresponding fitness score
      */
-    record CuckooSearchFeatureSet(int[] subSet, double score) { }
+    public record CuckooSearchFeatureSet(BitGenome subSet, double score) { }
+
+    /**
+     * This record is used to hold a subset of the Pareto front with its objectives
+     * @param featureSet The selected features
+     * @param objectives The accuracy, feature count and redundancy of the subset
+     */
+    public record ParetoFeatureSet(SelectedFeatureSet featureSet, Objectives objectives) { }
+
+    /**
+     * This record is used to hold the outcome of evolving a single nest during a generation
+     */
+    private record NestUpdate(int nest, BitGenome solution, double score, BitGenome levySolution, double levyScore, int randomNest,
+                              long levyFlightNanos, long abandonNestNanos, long mutationNanos,
+                              List<CuckooSearchFeatureSet> evaluated, List<ParetoArchive.Entry> archived, int screened) { }
+
+    /**
+     * This class is used to collect the candidates a nest sent to the fitness function and the ones the surrogate
+     * screened out, the surrogate and the Pareto archive learn from them after the generation
+     */
+    private static final class NestEvaluations {
+        private final List<CuckooSearchFeatureSet> evaluated = new ArrayList<>();
+        private final List<ParetoArchive.Entry> archived = new ArrayList<>();
+        private int screened;
+    }
 }
@@ -0,0 +1,140 @@
+package WrapperCuckooSearchForFS.org.Optimizers;
+
+import WrapperCuckooSearchForFS.org.Optimizers.CuckooSearchOptimizer.CuckooSearchFeatureSet;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Migrates nests around a ring of islands through files in a shared directory, island {@code i} sends its
+ * emigrants to island {@code i + 1} and receives the emigrants of island {@code i - 1}
+ * <p>
+ * The directory only has to be visible to every island, so the islands can run on one machine or on a cluster
+ * with a shared file system. An island that finished writes an end marker after its last emigrants, the next island
+ * then receives no immigrants instead of waiting for the timeout.
+ */
+public final class FileMigration implements Migration {
+    private static final int MAGIC = 0x4353494d;
+    private static final long POLL_MILLIS = 50;
+    private final Path directory;
+    private final int island;
+    private final int islandCount;
+    private final Duration timeout;
+
+    /**
+     * Constructs the migration of a single island
+     * @param directory The directory shared by the islands
+     * @param island The id of this island, from 0 to islandCount - 1
+     * @param islandCount The number of islands in the ring
+     * @param timeout The longest time to wait for the emigrants of the previous island
+     */
+    public FileMigration(Path directory, int island, int islandCount, Duration timeout) {
+        if (islandCount < 1 || island < 0 || island >= islandCount) {
+            throw new IllegalArgumentException("Invalid island " + island + " of " + islandCount);
+        }
+        this.directory = directory;
+        this.island = island;
+        this.islandCount = islandCount;
+        this.timeout = timeout;
+    }
+
+    /**
+     * This method is used to write the emigrants of this island and wait for the ones of the previous island
+     * @param iteration The number of completed generations
+     * @param emigrants The best nests of this island, best first
+     * @return The emigrants of the previous island
+     */
+    @Override
+    public List<CuckooSearchFeatureSet> exchange(int iteration, List<CuckooSearchFeatureSet> emigrants) {
+        try {
+            send(file(island, iteration), emigrants);
+            int from = (island + islandCount - 1) % islandCount;
+            return receive(file(from, iteration), endMarker(from));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to migrate the nests of island " + island + " after iteration " + iteration, e);
+        }
+    }
+
+    /**
+     * This method is used to write the end marker of this island
+     * @param iteration The number of generations the island completed
+     */
+    @Override
+    public void finish(int iteration) {
+        try {
+            send(endMarker(island), List.of());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to mark the end of island " + island + " after iteration " + iteration, e);
+        }
+    }
+
+    /**
+     * @param from The island that sends the nests
+     * @param iteration The number of completed generations
+     * @return The file holding the emigrants of the island
+     */
+    private Path file(int from, int iteration) {
+        return directory.resolve("migrants-" + from + "-" + iteration + ".bin");
+    }
+
+    /**
+     * @param from The island that sends the nests
+     * @return The file written once the island sends no more nests
+     */
+    private Path endMarker(int from) {
+        return directory.resolve("migrants-" + from + "-end.bin");
+    }
+
+    private void send(Path path, List<CuckooSearchFeatureSet> emigrants) throws IOException {
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(emigrants.size());
+                out.writeInt(emigrants.isEmpty() ? 0 : emigrants.get(0).subSet().length());
+                for (CuckooSearchFeatureSet emigrant : emigrants) {
+                    SearchCheckpoint.writeGenome(out, emigrant.subSet(), emigrant.score());
+                }
+            }
+            SearchCheckpoint.moveAtomically(temporary, path);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private List<CuckooSearchFeatureSet> receive(Path path, Path endMarker) throws IOException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!Files.exists(path)) {
+            // The marker is written after the last emigrants, so they are already there if they ever will be
+            if (Files.exists(endMarker) && !Files.exists(path)) {
+                return List.of();
+            }
+            if (System.nanoTime() - deadline > 0) {
+                throw new IOException("Timed out waiting for " + path);
+            }
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for " + path);
+            }
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(path + " does not hold migrating nests");
+            }
+            int count = in.readInt();
+            int featureCount = in.readInt();
+            List<CuckooSearchFeatureSet> immigrants = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                double score = in.readDouble();
+                immigrants.add(new CuckooSearchFeatureSet(SearchCheckpoint.readGenome(in, featureCount), score));
+            }
+            return immigrants;
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package WrapperCuckooSearchForFS.org.Optimizers;
+
+import WrapperCuckooSearchForFS.org.Discreeting.BitGenome;
+import WrapperCuckooSearchForFS.org.Discreeting.TransferFunction;
+import WrapperCuckooSearchForFS.org.Evaluation.FitnessFunction;
+import WrapperCuckooSearchForFS.org.Optimizers.CuckooSearchOptimizer.CuckooSearchFeatureSet;
+import com.oracle.labs.mlrg.olcut.config.ConfigurationManager;
+import org.tribuo.*;
+import org.tribuo.classification.Label;
+import org.tribuo.provenance.FeatureSelectorProvenance;
+import org.tribuo.provenance.FeatureSetProvenance;
+import org.tribuo.provenance.impl.FeatureSelectorProvenanceImpl;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Select features with an island model of Cuckoo Search, every island evolves its own population in a separate
+ * worker process with its own {@link FitnessFunction} and the best nests migrate around a ring of islands
+ * <p>
+ * The dataset, the trainer configuration and the settings are written to a working directory that the workers read
+ * and migrate through, see {@link IslandWorker}. By default the workers are started on this machine, on a cluster
+ * they can be started on other nodes against a shared directory instead.
+ * <p>
+ * see:
+ * <pre>
+ * Darrell Whitley, Soraya Rana and Robert B. Heckendorn.
+ * "The Island Model Genetic Algorithm: On Separability, Population Size and Convergence", 1999.
+ * </pre>
+ */
+public final class IslandModelOptimizer implements FeatureSelector<Label> {
+    static final String DATASET_FILE = "dataset.tribuo";
+    static final String TRAINER_FILE = "trainer.xml";
+    static final String SETTINGS_FILE = "islands.properties";
+    static final String TRAINER_NAME = "trainer";
+    private static final long POLL_MILLIS = 500;
+    private final Trainer<Label> trainer;
+    private final FitnessFunction.Correlation_Id correlation_id;
+    private final TransferFunction transferFunction;
+    private final int populationSize;
+    private final double stepSizeScaling;
+    private final double lambda;
+    private final double worstNestProbability;
+    private final double mutationRate;
+    private final double delta;
+    private final int maxIteration;
+    private final int seed;
+    private final int islandCount;
+    private final int migrationInterval;
+    private final int migrants;
+    private Path workingDirectory;
+    private boolean launchWorkers = true;
+    private int workerParallelism;
+    private boolean earlyAbort;
+    private FitnessFunction.Backend backend = FitnessFunction.Backend.Tribuo;
+    private Duration migrationTimeout = Duration.ofHours(1);
+    private Duration resultTimeout = Duration.ofDays(1);
+
+    /**
+     * The constructor of the island model, every island is configured as a {@link CuckooSearchOptimizer}
+     * @param trainer The used trainer in the evaluation process, it must be configurable through OLCUT
+     * @param correlation_id The correlation coefficient used in the penalty, or null to skip it
+     * @param transferFunction The transfer function to convert continuous values to binary ones
+     * @param populationSize The size of the solution in the initial population of every island
+     * @param stepSizeScaling The factor that is used to scale the step size
+     * @param lambda The lambda of the levy flight function
+     * @param worstNestProbability The fraction of the nests to be abandoned
+     * @param mutationRate The proportion of bits to be flipped in the mutation operator
+     * @param delta The delta that is used in the abandon nest function
+     * @param maxIteration The number of generations of every island
+     * @param seed The seed of the first island, island i uses seed + i
+     * @param islandCount The number of islands
+     * @param migrationInterval The number of generations between two migrations
+     * @param migrants The number of nests sent to the next island at every migration
+     */
+    public IslandModelOptimizer(Trainer<Label> trainer, FitnessFunction.Correlation_Id correlation_id, TransferFunction transferFunction, int populationSize, double stepSizeScaling, double lambda, double worstNestProbability, double mutationRate, double delta, int maxIteration, int seed, int islandCount, int migrationInterval, int migrants) {
+        if (islandCount < 1 || migrationInterval < 1 || migrants < 0) {
+            throw new IllegalArgumentException("Invalid island model of " + islandCount + " islands migrating " + migrants + " nests every " + migrationInterval + " generations");
+        }
+        this.trainer = trainer;
+        this.correlation_id = correlation_id;
+        this.transferFunction = transferFunction;
+        this.populationSize = populationSize;
+        this.stepSizeScaling = stepSizeScaling;
+        this.lambda = lambda;
+        this.worstNestProbability = worstNestProbability;
+        this.mutationRate = mutationRate;
+        this.delta = delta;
+        this.maxIteration = maxIteration;
+        this.seed = seed;
+        this.islandCount = islandCount;
+        this.migrationInterval = migrationInterval;
+        this.migrants = migrants;
+        this.workerParallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / islandCount);
+    }
+
+    /**
+     * @param workingDirectory The directory shared with the workers, or null to use a new temporary directory
+     */
+    public void setWorkingDirectory(Path workingDirectory) {
+        this.workingDirectory = workingDirectory;
+    }
+
+    /**
+     * @param launchWorkers True to start the workers on this machine, false to wait for workers started elsewhere
+     */
+    public void setLaunchWorkers(boolean launchWorkers) {
+        this.launchWorkers = launchWorkers;
+    }
+
+    /**
+     * @param workerParallelism The number of threads that evaluate the nests inside every worker
+     */
+    public void setWorkerParallelism(int workerParallelism) {
+        if (workerParallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be positive, found " + workerParallelism);
+        }
+        this.workerParallelism = workerParallelism;
+    }
+
+    /**
+     * @param earlyAbort True to enable racing of the candidates inside every worker
+     */
+    public void setEarlyAbort(boolean earlyAbort) {
+        this.earlyAbort = earlyAbort;
+    }
+
+    /**
+     * @param backend The implementation of the cross validation inside every worker
+     */
+    public void setFitnessBackend(FitnessFunction.Backend backend) {
+        this.backend = Objects.requireNonNull(backend);
+    }
+
+    /**
+     * @param migrationTimeout The longest time an island waits for the nests of the previous island
+     */
+    public void setMigrationTimeout(Duration migrationTimeout) {
+        this.migrationTimeout = Objects.requireNonNull(migrationTimeout);
+    }
+
+    /**
+     * @param resultTimeout The longest time to wait for the islands to write their results, the workers started on
+     *                      this machine are killed once it has passed, see {@link #setLaunchWorkers(boolean)}
+     */
+    public void setResultTimeout(Duration resultTimeout) {
+        this.resultTimeout = Objects.requireNonNull(resultTimeout);
+    }
+
+    /**
+     * Does this feature selection algorithm return an ordered feature set?
+     *
+     * @return True if the set is ordered.
+     */
+    @Override
+    public boolean isOrdered() {
+        return true;
+    }
+
+    /**
+     * Selects features according to this selection algorithm from the specified dataset.
+     * <p>
+     * The best subset over all the islands is returned, lower island ids win ties.
+     * @param dataset The dataset to use.
+     * @return A selected feature set.
+     */
+    @Override
+    public SelectedFeatureSet select(Dataset<Label> dataset) {
+        try {
+            Path directory = workingDirectory == null ? Files.createTempDirectory("islands") : Files.createDirectories(workingDirectory);
+            prepare(directory, dataset);
+            long deadline = System.nanoTime() + resultTimeout.toNanos();
+            if (launchWorkers) {
+                runWorkers(directory, deadline);
+            }
+            CuckooSearchFeatureSet best = null;
+            for (int island = 0; island < islandCount; island++) {
+                CuckooSearchFeatureSet result = readResult(awaitResult(directory, island, deadline));
+                if (best == null || result.score() > best.score()) {
+                    best = result;
+                }
+            }
+            ImmutableFeatureMap FMap = new ImmutableFeatureMap(dataset.getFeatureMap());
+            List<String> names = new ArrayList<>();
+            List<Double> scores = new ArrayList<>();
+            for (int i = best.subSet().nextSetBit(0); i >= 0; i = best.subSet().nextSetBit(i + 1)) {
+                names.add(FMap.get(i).getName());
+                scores.add(1D);
+            }
+            FeatureSetProvenance provenance = new FeatureSetProvenance(SelectedFeatureSet.class.getName(), dataset.getProvenance(), getProvenance());
+            return new SelectedFeatureSet(names, scores, isOrdered(), provenance);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to run the island model", e);
+        }
+    }
+
+    @Override
+    public FeatureSelectorProvenance getProvenance() {
+        return new FeatureSelectorProvenanceImpl(this);
+    }
+
+    /**
+     * This method is used to write everything the workers need and remove the files of a previous run
+     * @param directory The working directory
+     * @param dataset The dataset to use
+     * @throws IOException If the files cannot be written
+     */
+    private void prepare(Path directory, Dataset<Label> dataset) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.startsWith("migrants-") || name.endsWith(".result")) {
+                    Files.delete(file);
+                }
+            }
+        }
+        dataset.serializeToFile(directory.resolve(DATASET_FILE));
+        ConfigurationManager configuration = new ConfigurationManager();
+        configuration.importConfigurable(trainer, TRAINER_NAME);
+        configuration.save(directory.resolve(TRAINER_FILE).toFile(), true);
+        Properties settings = new Properties();
+        if (correlation_id != null) {
+            settings.setProperty("correlation", correlation_id.name());
+        }
+        settings.setProperty("transferFunction", transferFunction.name());
+        settings.setProperty("populationSize", Integer.toString(populationSize));
+        settings.setProperty("stepSizeScaling", Double.toString(stepSizeScaling));
+        settings.setProperty("lambda", Double.toString(lambda));
+        settings.setProperty("worstNestProbability", Double.toString(worstNestProbability));
+        settings.setProperty("mutationRate", Double.toString(mutationRate));
+        settings.setProperty("delta", Double.toString(delta));
+        settings.setProperty("maxIteration", Integer.toString(maxIteration));
+        settings.setProperty("seed", Integer.toString(seed));
+        settings.setProperty("islandCount", Integer.toString(islandCount));
+        settings.setProperty("migrationInterval", Integer.toString(migrationInterval));
+        settings.setProperty("migrants", Integer.toString(migrants));
+        settings.setProperty("parallelism", Integer.toString(workerParallelism));
+        settings.setProperty("earlyAbort", Boolean.toString(earlyAbort));
+        settings.setProperty("backend", backend.name());
+        settings.setProperty("migrationTimeoutSeconds", Long.toString(migrationTimeout.toSeconds()));
+        try (Writer writer = Files.newBufferedWriter(directory.resolve(SETTINGS_FILE))) {
+            settings.store(writer, "Cuckoo search island model");
+        }
+    }
+
+    /**
+     * This method is used to start a worker process for every island on this machine and wait for all of them, the
+     * workers still running at the deadline are killed
+     * @param directory The working directory
+     * @param deadline The time from {@link System#nanoTime()} after which the islands are considered lost
+     * @throws IOException If a worker cannot be started
+     */
+    private void runWorkers(Path directory, long deadline) throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<Process> workers = new ArrayList<>();
+        try {
+            for (int island = 0; island < islandCount; island++) {
+                workers.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), IslandWorker.class.getName(),
+                        directory.toString(), Integer.toString(island)).
+                        redirectErrorStream(true).
+                        redirectOutput(directory.resolve("island-" + island + ".log").toFile()).
+                        start());
+            }
+            for (int island = 0; island < islandCount; island++) {
+                if (!workers.get(island).waitFor(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    throw new IllegalStateException("Timed out waiting for island " + island + ", see " + directory.resolve("island-" + island + ".log"));
+                }
+                int exitCode = workers.get(island).exitValue();
+                if (exitCode != 0) {
+                    throw new IllegalStateException("Island " + island + " failed with exit code " + exitCode + ", see " + directory.resolve("island-" + island + ".log"));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the islands", e);
+        } finally {
+            workers.forEach(Process::destroyForcibly);
+        }
+    }
+
+    /**
+     * This method is used to wait until the given island has written its result
+     * @param directory The working directory
+     * @param island The id of the island
+     * @param deadline The time from {@link System#nanoTime()} after which the island is considered lost
+     * @return The path of the result
+     */
+    private static Path awaitResult(Path directory, int island, long deadline) {
+        Path result = resultFile(directory, island);
+        while (!Files.exists(result)) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new IllegalStateException("Timed out waiting for the result of island " + island + " in " + result);
+            }
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for " + result, e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param directory The working directory
+     * @param island The id of the island
+     * @return The path of the best subset found by the island
+     */
+    static Path resultFile(Path directory, int island) {
+        return directory.resolve("island-" + island + ".result");
+    }
+
+    /**
+     * This method is used to write the best subset found by an island
+     * @param path The path of the result
+     * @param result The best subset and its fitness score
+     * @throws IOException If the file cannot be written
+     */
+    static void writeResult(Path path, CuckooSearchFeatureSet result) throws IOException {
+        Path temporary = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(result.subSet().length());
+                SearchCheckpoint.writeGenome(out, result.subSet(), result.score());
+            }
+            SearchCheckpoint.moveAtomically(temporary, path);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * @param path The path of the result
+     * @return The best subset found by an island and its fitness score
+     * @throws IOException If the file cannot be read
+     */
+    static CuckooSearchFeatureSet readResult(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            int featureCount = in.readInt();
+            double score = in.readDouble();
+            BitGenome subSet = SearchCheckpoint.readGenome(in, featureCount);
+            return new CuckooSearchFeatureSet(subSet, score);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package WrapperCuckooSearchForFS.org.Optimizers;
+
+import WrapperCuckooSearchForFS.org.Discreeting.BitGenome;
+import WrapperCuckooSearchForFS.org.Discreeting.TransferFunction;
+import WrapperCuckooSearchForFS.org.Evaluation.FitnessFunction;
+import WrapperCuckooSearchForFS.org.Optimizers.CuckooSearchOptimizer.CuckooSearchFeatureSet;
+import com.oracle.labs.mlrg.olcut.config.ConfigurationManager;
+import org.tribuo.Dataset;
+import org.tribuo.ImmutableFeatureMap;
+import org.tribuo.SelectedFeatureSet;
+import org.tribuo.Trainer;
+import org.tribuo.classification.Label;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * The process that evolves a single island of an {@link IslandModelOptimizer}
+ * <p>
+ * Usage: {@code IslandWorker <working directory> <island id>}, the directory must hold the files written by the
+ * island model and the best subset of the island is written back to it.
+ */
+public final class IslandWorker {
+    private IslandWorker() { }
+
+    @SuppressWarnings("unchecked")
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: IslandWorker <working directory> <island id>");
+        }
+        Path directory = Path.of(args[0]);
+        int island = Integer.parseInt(args[1]);
+        Properties settings = new Properties();
+        try (Reader reader = Files.newBufferedReader(directory.resolve(IslandModelOptimizer.SETTINGS_FILE))) {
+            settings.load(reader);
+        }
+        Dataset<Label> dataset = Dataset.castDataset(Dataset.deserializeFromFile(directory.resolve(IslandModelOptimizer.DATASET_FILE)), Label.class);
+        ConfigurationManager configuration = new ConfigurationManager(directory.resolve(IslandModelOptimizer.TRAINER_FILE).toString());
+        Trainer<Label> trainer = (Trainer<Label>) configuration.lookup(IslandModelOptimizer.TRAINER_NAME);
+        String correlation = settings.getProperty("correlation");
+        CuckooSearchOptimizer optimizer = new CuckooSearchOptimizer(trainer,
+                correlation == null ? null : FitnessFunction.Correlation_Id.valueOf(correlation),
+                TransferFunction.valueOf(settings.getProperty("transferFunction")),
+                Integer.parseInt(settings.getProperty("populationSize")),
+                Double.parseDouble(settings.getProperty("stepSizeScaling")),
+                Double.parseDouble(settings.getProperty("lambda")),
+                Double.parseDouble(settings.getProperty("worstNestProbability")),
+                Double.parseDouble(settings.getProperty("mutationRate")),
+                Double.parseDouble(settings.getProperty("delta")),
+                Integer.parseInt(settings.getProperty("maxIteration")),
+                Integer.parseInt(settings.getProperty("seed")) + island);
+        optimizer.setParallelism(Integer.parseInt(settings.getProperty("parallelism")));
+        optimizer.setEarlyAbort(Boolean.parseBoolean(settings.getProperty("earlyAbort")));
+        optimizer.setFitnessBackend(FitnessFunction.Backend.valueOf(settings.getProperty("backend", FitnessFunction.Backend.Tribuo.name())));
+        optimizer.setMigration(new FileMigration(directory, island, Integer.parseInt(settings.getProperty("islandCount")),
+                        Duration.ofSeconds(Long.parseLong(settings.getProperty("migrationTimeoutSeconds")))),
+                Integer.parseInt(settings.getProperty("migrationInterval")),
+                Integer.parseInt(settings.getProperty("migrants")));
+        SelectedFeatureSet selected = optimizer.select(dataset);
+        ImmutableFeatureMap FMap = new ImmutableFeatureMap(dataset.getFeatureMap());
+        BitGenome subSet = new BitGenome(FMap.size());
+        for (String name : selected.featureNames()) {
+            subSet.set(FMap.getID(name), true);
+        }
+        IslandModelOptimizer.writeResult(IslandModelOptimizer.resultFile(directory, island), new CuckooSearchFeatureSet(subSet, optimizer.getBestScore()));
+    }
+}
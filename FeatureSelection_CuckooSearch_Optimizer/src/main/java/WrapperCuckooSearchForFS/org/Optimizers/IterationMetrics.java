@@ -0,0 +1,26 @@
+package WrapperCuckooSearchForFS.org.Optimizers;
+
+/**
+ * This record is used to hold the figures of a single generation of the search
+ * <p>
+ * The phase times are summed over the nests of the generation, as the nests run in parallel they measure the work
+ * spent in each phase rather than the elapsed time, which is given by {@code iterationNanos}.
+ * @param iteration The 1-based index of the generation
+ * @param bestScore The fitness score of the best subset found so far
+ * @param meanScore The mean fitness score of the population
+ * @param bestFeatureCount The number of features selected by the best subset found so far
+ * @param levyFlightNanos The time spent building and scoring the levy flight candidates
+ * @param abandonNestNanos The time spent building and scoring the abandon nest candidates
+ * @param mutationNanos The time spent building and scoring the mutated candidates
+ * @param rescoringNanos The time spent merging the nests back into the population and ranking it
+ * @param iterationNanos The elapsed time of the generation
+ * @param evaluations The number of calls to EvaluateSolution during the generation
+ * @param cacheHits The number of those calls answered by the fitness cache
+ * @param trainingNanos The time spent training and testing the cross validation folds
+ * @param correlationNanos The time spent computing the correlation of the subsets
+ * @param screenedCandidates The number of candidates the surrogate rejected without evaluating them
+ */
+public record IterationMetrics(int iteration, double bestScore, double meanScore, int bestFeatureCount,
+                               long levyFlightNanos, long abandonNestNanos, long mutationNanos, long rescoringNanos,
+                               long iterationNanos, long evaluations, long cacheHits, long trainingNanos,
+                               long correlationNanos, long screenedCandidates) { }
@@ -0,0 +1,73 @@
+package WrapperCuckooSearchForFS.org.Optimizers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Writes one JSON object per generation so a long search can be followed with tail or loaded into a notebook
+ */
+public final class JsonLinesSearchListener implements SearchListener, AutoCloseable {
+    private final Writer writer;
+
+    /**
+     * Constructs a listener that writes to the given writer, which is flushed after every line
+     * @param writer The destination of the JSON lines
+     */
+    public JsonLinesSearchListener(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Constructs a listener that writes to the given file, replacing its content
+     * @param path The file receiving the JSON lines
+     * @throws IOException If the file cannot be opened
+     */
+    public JsonLinesSearchListener(Path path) throws IOException {
+        this(Files.newBufferedWriter(path, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void onIteration(IterationMetrics metrics) {
+        write(String.format(Locale.ROOT,
+                "{\"iteration\":%d,\"bestScore\":%s,\"meanScore\":%s,\"bestFeatureCount\":%d,"
+                        + "\"levyFlightNanos\":%d,\"abandonNestNanos\":%d,\"mutationNanos\":%d,\"rescoringNanos\":%d,"
+                        + "\"iterationNanos\":%d,\"evaluations\":%d,\"cacheHits\":%d,\"trainingNanos\":%d,\"correlationNanos\":%d,"
+                        + "\"screenedCandidates\":%d}",
+                metrics.iteration(), number(metrics.bestScore()), number(metrics.meanScore()), metrics.bestFeatureCount(),
+                metrics.levyFlightNanos(), metrics.abandonNestNanos(), metrics.mutationNanos(), metrics.rescoringNanos(),
+                metrics.iterationNanos(), metrics.evaluations(), metrics.cacheHits(), metrics.trainingNanos(),
+                metrics.correlationNanos(), metrics.screenedCandidates()));
+    }
+
+    @Override
+    public void onSearchEnd(int iterations, double bestScore) {
+        write(String.format(Locale.ROOT, "{\"event\":\"end\",\"iterations\":%d,\"bestScore\":%s}", iterations, number(bestScore)));
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * JSON has no literal for NaN or the infinities so they are written as null
+     */
+    private static String number(double value) {
+        return Double.isFinite(value) ? Double.toString(value) : "null";
+    }
+
+    private void write(String line) {
+        try {
+            writer.write(line);
+            writer.write(System.lineSeparator());
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the search metrics", e);
+        }
+    }
+}
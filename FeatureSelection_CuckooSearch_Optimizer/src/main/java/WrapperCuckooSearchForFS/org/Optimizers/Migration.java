@@ -0,0 +1,29 @@
+package WrapperCuckooSearchForFS.org.Optimizers;
+
+import WrapperCuckooSearchForFS.org.Optimizers.CuckooSearchOptimizer.CuckooSearchFeatureSet;
+
+import java.util.List;
+
+/**
+ * Exchanges the best nests of a population with the other islands of an island-model search
+ * <p>
+ * Every island calls {@link #exchange} after the same generations, so an implementation may block until the
+ * neighbouring islands have sent their emigrants. An island stopped early by its stopping policy or its evaluation
+ * budget skips the remaining exchanges, it calls {@link #finish} so its neighbours no longer wait for it. The islands
+ * share the dataset and the fitness function, so the score of an immigrant is used as is.
+ */
+public interface Migration {
+    /**
+     * This method is used to send the given nests and receive the nests sent to this island
+     * @param iteration The number of completed generations
+     * @param emigrants The best nests of this island, best first
+     * @return The nests that migrate into this island
+     */
+    List<CuckooSearchFeatureSet> exchange(int iteration, List<CuckooSearchFeatureSet> emigrants);
+
+    /**
+     * This method is used to tell the other islands that this island sends no more nests
+     * @param iteration The number of generations the island completed
+     */
+    default void finish(int iteration) { }
+}
@@ -0,0 +1,91 @@
+package WrapperCuckooSearchForFS.org.Optimizers;
+
+import WrapperCuckooSearchForFS.org.Discreeting.BitGenome;
+import WrapperCuckooSearchForFS.org.Evaluation.Objectives;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The subsets that no other evaluated subset dominates on accuracy, feature count and redundancy
+ * <p>
+ * The archive holds one front per feature count, within a front the subsets sorted by accuracy also have an increasing
+ * redundancy, so whether a subset is dominated is answered by one lookup in every front with fewer features and the
+ * subsets it dominates are a contiguous run of every front with more features. Of two subsets with the same
+ * objectives the one archived first is kept, so the archive only depends on the order in which subsets are offered.
+ */
+public final class ParetoArchive {
+    private final List<TreeMap<Double, Entry>> fronts;
+
+    /**
+     * This record is used to hold an archived subset with its objectives
+     * @param subSet The subset of features
+     * @param objectives The objectives of the subset
+     */
+    public record Entry(BitGenome subSet, Objectives objectives) { }
+
+    /**
+     * Constructs an empty archive
+     * @param featureCount The number of features of the searched dataset
+     */
+    public ParetoArchive(int featureCount) {
+        fronts = new ArrayList<>(featureCount + 1);
+        for (int count = 0; count <= featureCount; count++) {
+            fronts.add(new TreeMap<>());
+        }
+    }
+
+    /**
+     * This method is used to offer an evaluated subset to the archive
+     * @param subSet The subset of features, it is copied when archived
+     * @param objectives The objectives of the subset
+     * @return True if the subset was archived, false if an archived subset dominates or equals it or if an objective
+     * is NaN, which no other subset could be compared with
+     */
+    public synchronized boolean add(BitGenome subSet, Objectives objectives) {
+        int count = objectives.featureCount();
+        double accuracy = objectives.accuracy();
+        double redundancy = objectives.redundancy();
+        if (Double.isNaN(accuracy) || Double.isNaN(redundancy)) {
+            return false;
+        }
+        for (int fewer = 0; fewer <= count; fewer++) {
+            // The lowest redundancy among the subsets at least as accurate
+            Map.Entry<Double, Entry> closest = fronts.get(fewer).ceilingEntry(accuracy);
+            if (closest != null && closest.getValue().objectives().redundancy() <= redundancy) {
+                return false;
+            }
+        }
+        for (int more = count; more < fronts.size(); more++) {
+            Iterator<Entry> dominated = fronts.get(more).headMap(accuracy, true).descendingMap().values().iterator();
+            while (dominated.hasNext() && dominated.next().objectives().redundancy() >= redundancy) {
+                dominated.remove();
+            }
+        }
+        fronts.get(count).put(accuracy, new Entry(subSet.copy(), objectives));
+        return true;
+    }
+
+    /**
+     * @return The archived subsets sorted by feature count and then by decreasing accuracy
+     */
+    public synchronized List<Entry> front() {
+        List<Entry> front = new ArrayList<>();
+        for (TreeMap<Double, Entry> subsets : fronts) {
+            for (Entry entry : subsets.descendingMap().values()) {
+                front.add(new Entry(entry.subSet().copy(), entry.objectives()));
+            }
+        }
+        return front;
+    }
+
+    /**
+     * @return The number of archived subsets
+     */
+    public synchronized int size() {
+        return fronts.stream().mapToInt(TreeMap::size).sum();
+    }
+}
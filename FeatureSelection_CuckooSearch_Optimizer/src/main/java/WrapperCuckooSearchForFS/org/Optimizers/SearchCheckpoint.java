@@ -0,0 +1,185 @@
+package WrapperCuckooSearchForFS.org.Optimizers;
+
+import WrapperCuckooSearchForFS.org.Discreeting.BitGenome;
+import WrapperCuckooSearchForFS.org.Evaluation.Objectives;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The state of a cuckoo search after a completed generation, enough to continue the search as if it was never stopped
+ * <p>
+ * The file holds a small header followed by the packed bitmask and the score of the best subset and of every nest,
+ * then the state of the optional parts of the search.
+ * @param iteration The number of completed generations
+ * @param stateSeed The seed of the random stream of the next generation
+ * @param population The nests of the population
+ * @param scores The fitness score of every nest
+ * @param best The best subset found so far
+ * @param bestScore The fitness score of the best subset
+ * @param surrogateState The learned state of the surrogate, empty if the search does not use one
+ * @param bestScores The best fitness score after the initial population and after every completed generation
+ * @param evaluations The number of cross validation runs so far, see {@link SearchProgress#evaluations()}
+ * @param paretoFront The archived Pareto front, empty if the search is not multi-objective
+ */
+public record SearchCheckpoint(int iteration, long stateSeed, BitGenome[] population, double[] scores, BitGenome best, double bestScore,
+                               double[] surrogateState, double[] bestScores, long evaluations, List<ParetoArchive.Entry> paretoFront) {
+    private static final int MAGIC = 0x43534350;
+    private static final byte VERSION = 1;
+
+    /**
+     * Constructs a checkpoint and checks that the population is consistent
+     */
+    public SearchCheckpoint {
+        if (iteration < 0) {
+            throw new IllegalArgumentException("The iteration must be non-negative, found " + iteration);
+        }
+        if (population.length == 0 || population.length != scores.length) {
+            throw new IllegalArgumentException("Expected one score for each of the " + population.length + " nests, found " + scores.length);
+        }
+        for (BitGenome nest : population) {
+            if (nest.length() != best.length()) {
+                throw new IllegalArgumentException("The nests and the best subset have different lengths, " + nest.length() + " and " + best.length());
+            }
+        }
+    }
+
+    /**
+     * @return The number of features of the searched dataset
+     */
+    public int featureCount() {
+        return best.length();
+    }
+
+    /**
+     * This method is used to write the checkpoint, the file is replaced only once it has been completely written so
+     * a crash while saving leaves the previous checkpoint intact
+     * @param path The path of the checkpoint file
+     * @throws IOException If the file cannot be written
+     */
+    public void write(Path path) throws IOException {
+        Path absolute = path.toAbsolutePath();
+        Path temporary = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.writeInt(featureCount());
+                out.writeInt(population.length);
+                out.writeInt(iteration);
+                out.writeLong(stateSeed);
+                writeGenome(out, best, bestScore);
+                for (int nest = 0; nest < population.length; nest++) {
+                    writeGenome(out, population[nest], scores[nest]);
+                }
+                writeValues(out, surrogateState);
+                writeValues(out, bestScores);
+                out.writeLong(evaluations);
+                out.writeInt(paretoFront.size());
+                for (ParetoArchive.Entry entry : paretoFront) {
+                    writeGenome(out, entry.subSet(), entry.objectives().accuracy());
+                    out.writeDouble(entry.objectives().redundancy());
+                }
+            }
+            moveAtomically(temporary, absolute);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * This method is used to read a checkpoint written by {@link #write(Path)}
+     * @param path The path of the checkpoint file
+     * @return The checkpoint
+     * @throws IOException If the file cannot be read or is not a checkpoint
+     */
+    public static SearchCheckpoint read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(path + " is not a cuckoo search checkpoint");
+            }
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported checkpoint version " + version + " in " + path);
+            }
+            int featureCount = in.readInt();
+            int populationSize = in.readInt();
+            if (featureCount < 0 || populationSize < 1) {
+                throw new IOException("Corrupted checkpoint header in " + path);
+            }
+            int iteration = in.readInt();
+            long stateSeed = in.readLong();
+            double bestScore = in.readDouble();
+            BitGenome best = readGenome(in, featureCount);
+            BitGenome[] population = new BitGenome[populationSize];
+            double[] scores = new double[populationSize];
+            for (int nest = 0; nest < populationSize; nest++) {
+                scores[nest] = in.readDouble();
+                population[nest] = readGenome(in, featureCount);
+            }
+            double[] surrogateState = readValues(in);
+            double[] bestScores = readValues(in);
+            long evaluations = in.readLong();
+            int frontSize = in.readInt();
+            if (frontSize < 0) {
+                throw new IOException("Corrupted Pareto front in " + path);
+            }
+            List<ParetoArchive.Entry> paretoFront = new ArrayList<>();
+            for (int entry = 0; entry < frontSize; entry++) {
+                double accuracy = in.readDouble();
+                BitGenome subSet = readGenome(in, featureCount);
+                paretoFront.add(new ParetoArchive.Entry(subSet, new Objectives(accuracy, subSet.cardinality(), in.readDouble())));
+            }
+            return new SearchCheckpoint(iteration, stateSeed, population, scores, best, bestScore, surrogateState, bestScores, evaluations, paretoFront);
+        }
+    }
+
+    /**
+     * This method is used to replace the target with a completely written file so readers never see a partial one
+     * @param temporary The written file
+     * @param target The path to replace
+     * @throws IOException If the file cannot be moved
+     */
+    static void moveAtomically(Path temporary, Path target) throws IOException {
+        try {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void writeValues(DataOutputStream out, double[] values) throws IOException {
+        out.writeInt(values.length);
+        for (double value : values) {
+            out.writeDouble(value);
+        }
+    }
+
+    private static double[] readValues(DataInputStream in) throws IOException {
+        double[] values = new double[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readDouble();
+        }
+        return values;
+    }
+
+    static void writeGenome(DataOutputStream out, BitGenome genome, double score) throws IOException {
+        out.writeDouble(score);
+        for (long word : genome.toWords()) {
+            out.writeLong(word);
+        }
+    }
+
+    static BitGenome readGenome(DataInputStream in, int featureCount) throws IOException {
+        long[] words = new long[(featureCount + 63) >>> 6];
+        for (int w = 0; w < words.length; w++) {
+            words[w] = in.readLong();
+        }
+        return BitGenome.fromWords(featureCount, words);
+    }
+}
@@ -0,0 +1,19 @@
+package WrapperCuckooSearchForFS.org.Optimizers;
+
+/**
+ * Receives the progress of a running search, the methods are called on the thread that called select
+ */
+public interface SearchListener {
+    /**
+     * This method is called once every generation has been merged into the population
+     * @param metrics The convergence and timing figures of the generation
+     */
+    void onIteration(IterationMetrics metrics);
+
+    /**
+     * This method is called once the search has returned its best subset
+     * @param iterations The number of generations that were run
+     * @param bestScore The fitness score of the returned subset
+     */
+    default void onSearchEnd(int iterations, double bestScore) { }
+}
@@ -0,0 +1,26 @@
+package WrapperCuckooSearchForFS.org.Optimizers;
+
+/**
+ * This record is used to hold how far a search has come, it is given to the {@link StoppingPolicy} before every
+ * generation
+ * @param iteration The number of completed generations
+ * @param bestScores The best fitness score after the initial population and after every completed generation
+ * @param evaluations The number of cross validation runs so far, including the ones stopped early by racing and
+ *                    excluding the subsets answered by the fitness cache
+ * @param elapsedNanos The time since select or resume was called
+ * @param lastIterationNanos The elapsed time of the last generation, or of the initial population before the first one
+ */
+public record SearchProgress(int iteration, double[] bestScores, long evaluations, long elapsedNanos, long lastIterationNanos) {
+    /**
+     * @param generations The number of generations to look back
+     * @return How much the best fitness score improved during the last generations, or NaN if the search has not run
+     * that many generations yet
+     */
+    public double improvementOver(int generations) {
+        int last = bestScores.length - 1;
+        if (generations < 1 || last - generations < 0) {
+            return Double.NaN;
+        }
+        return bestScores[last] - bestScores[last - generations];
+    }
+}
@@ -0,0 +1,98 @@
+package WrapperCuckooSearchForFS.org.Optimizers;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Decides whether a search ends before {@code maxIteration} generations, the policies only look at the given
+ * {@link SearchProgress} so they carry no state and a search resumed from a checkpoint stops where it would have
+ */
+@FunctionalInterface
+public interface StoppingPolicy {
+    /**
+     * @param progress How far the search has come
+     * @return True to end the search and return the best subset found so far
+     */
+    boolean shouldStop(SearchProgress progress);
+
+    /**
+     * @return The wall-clock time a call of select or resume may take, no candidate is evaluated once it has passed
+     */
+    default long budgetNanos() {
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * @param generations The number of generations without any improvement of the best subset
+     * @return A policy that stops a search which stagnated for the given number of generations
+     */
+    static StoppingPolicy stagnation(int generations) {
+        if (generations < 1) {
+            throw new IllegalArgumentException("The number of generations must be positive, found " + generations);
+        }
+        return progress -> progress.improvementOver(generations) <= 0;
+    }
+
+    /**
+     * @param epsilon The smallest improvement of the best fitness score that keeps the search going
+     * @param generations The number of generations the improvement is measured over
+     * @return A policy that stops a search whose best score improved by less than epsilon during the last generations
+     */
+    static StoppingPolicy minimumImprovement(double epsilon, int generations) {
+        if (generations < 1) {
+            throw new IllegalArgumentException("The number of generations must be positive, found " + generations);
+        }
+        return progress -> progress.improvementOver(generations) < epsilon;
+    }
+
+    /**
+     * @param evaluations The largest number of cross validation runs, the subsets answered by the fitness cache are not
+     *                    counted as no model is trained for them
+     * @return A policy that stops a search once it cross validated the given number of subsets, the generation that
+     * crosses the limit is completed
+     */
+    static StoppingPolicy maxEvaluations(long evaluations) {
+        return progress -> progress.evaluations() >= evaluations;
+    }
+
+    /**
+     * @param budget The wall-clock time a call of select or resume may take
+     * @return A policy that skips the next generation when it would not finish within the budget, assuming it takes
+     * as long as the previous one, and stops evaluating the candidates of a generation once the budget has passed so
+     * their nests are kept. The initial population is always evaluated
+     */
+    static StoppingPolicy timeBudget(Duration budget) {
+        long budgetNanos = budget.toNanos();
+        return new StoppingPolicy() {
+            @Override
+            public boolean shouldStop(SearchProgress progress) {
+                return progress.elapsedNanos() + progress.lastIterationNanos() > budgetNanos;
+            }
+
+            @Override
+            public long budgetNanos() {
+                return budgetNanos;
+            }
+        };
+    }
+
+    /**
+     * @param policies The policies to combine
+     * @return A policy that stops the search as soon as any of the given policies does
+     */
+    static StoppingPolicy anyOf(StoppingPolicy... policies) {
+        List<StoppingPolicy> all = List.of(policies);
+        long budgetNanos = all.stream().mapToLong(StoppingPolicy::budgetNanos).min().orElse(Long.MAX_VALUE);
+        return new StoppingPolicy() {
+            @Override
+            public boolean shouldStop(SearchProgress progress) {
+                return all.stream().anyMatch(policy -> policy.shouldStop(progress));
+            }
+
+            @Override
+            public long budgetNanos() {
+                return budgetNanos;
+            }
+        };
+    }
+}
@@ -0,0 +1,130 @@
+package WrapperCuckooSearchForFS.org.Discreeting;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the bitwise operators of {@link BitGenome} against the gene by gene formulas they replace
+ */
+class BitGenomeTest {
+    private static final int[] LENGTHS = {1, 7, 63, 64, 65, 130};
+    private static final double[] OFFSETS = {-2.5, -1, -0.3, 0, 0.3, 0.5, 1, 1.5, 2};
+
+    @Test
+    void transferMatchesTheFunctionOfEveryGene() {
+        SplittableRandom rng = new SplittableRandom(1);
+        for (int length : LENGTHS) {
+            BitGenome genome = random(length, rng);
+            for (TransferFunction function : TransferFunction.values()) {
+                for (double offset : OFFSETS) {
+                    int[] expected = new int[length];
+                    int[] genes = genome.toArray();
+                    for (int i = 0; i < length; i++) {
+                        expected[i] = (int) function.applyAsDouble(genes[i] + offset);
+                    }
+                    BitGenome out = new BitGenome(length);
+                    genome.transfer(function, offset, out);
+                    assertArrayEquals(expected, out.toArray(), function + " offset " + offset);
+                    assertTailIsClear(out);
+                    BitGenome inPlace = genome.copy();
+                    inPlace.transfer(function, offset, inPlace);
+                    assertEquals(out, inPlace);
+                }
+            }
+        }
+    }
+
+    @Test
+    void abandonNestMatchesTheFunctionOfEveryGene() {
+        SplittableRandom rng = new SplittableRandom(2);
+        for (int length : LENGTHS) {
+            BitGenome x = random(length, rng);
+            BitGenome a = random(length, rng);
+            BitGenome b = random(length, rng);
+            for (TransferFunction function : TransferFunction.values()) {
+                for (double delta : OFFSETS) {
+                    int[] expected = new int[length];
+                    for (int i = 0; i < length; i++) {
+                        int difference = (a.get(i) ? 1 : 0) - (b.get(i) ? 1 : 0);
+                        expected[i] = (int) function.applyAsDouble((x.get(i) ? 1 : 0) + delta * difference);
+                    }
+                    BitGenome out = new BitGenome(length);
+                    x.abandonNest(function, delta, a, b, out);
+                    assertArrayEquals(expected, out.toArray(), function + " delta " + delta);
+                    assertTailIsClear(out);
+                    BitGenome aliased = a.copy();
+                    x.abandonNest(function, delta, aliased, b, aliased);
+                    assertEquals(out, aliased);
+                }
+            }
+        }
+    }
+
+    @Test
+    void mutateWithTheExtremeRates() {
+        SplittableRandom rng = new SplittableRandom(3);
+        for (int length : LENGTHS) {
+            BitGenome genome = random(length, rng);
+            BitGenome unchanged = genome.copy();
+            unchanged.mutate(0, rng);
+            assertEquals(genome, unchanged);
+            BitGenome complement = genome.copy();
+            complement.mutate(1, rng);
+            assertEquals(length, genome.distance(complement));
+            assertTailIsClear(complement);
+        }
+    }
+
+    @Test
+    void mutateFlipsEveryBitWithTheGivenRate() {
+        SplittableRandom rng = new SplittableRandom(4);
+        int length = 200;
+        int trials = 2000;
+        double rate = 0.1;
+        int[] flips = new int[length];
+        for (int trial = 0; trial < trials; trial++) {
+            BitGenome genome = random(length, rng);
+            BitGenome mutated = genome.copy();
+            mutated.mutate(rate, rng);
+            assertTailIsClear(mutated);
+            for (int i = mutated.nextDifferentBit(genome, 0); i >= 0; i = mutated.nextDifferentBit(genome, i + 1)) {
+                flips[i]++;
+            }
+        }
+        long total = 0;
+        for (int i = 0; i < length; i++) {
+            total += flips[i];
+            // The count of a single bit is binomial(2000, 0.1), with a standard deviation of about 13
+            assertTrue(Math.abs(flips[i] - rate * trials) < 70, "bit " + i + " flipped " + flips[i] + " times");
+        }
+        assertEquals(rate, (double) total / length / trials, 0.005);
+    }
+
+    @Test
+    void mutateIsDeterministicForAGivenStream() {
+        BitGenome first = random(100, new SplittableRandom(5));
+        BitGenome second = first.copy();
+        first.mutate(0.05, new SplittableRandom(6));
+        second.mutate(0.05, new SplittableRandom(6));
+        assertEquals(first, second);
+    }
+
+    private static BitGenome random(int length, SplittableRandom rng) {
+        BitGenome genome = new BitGenome(length);
+        genome.randomize(rng);
+        return genome;
+    }
+
+    private static void assertTailIsClear(BitGenome genome) {
+        long[] words = genome.toWords();
+        int used = genome.length() & 63;
+        if (used != 0) {
+            assertEquals(0, words[words.length - 1] >>> used, "bits beyond the length are set");
+        }
+    }
+}
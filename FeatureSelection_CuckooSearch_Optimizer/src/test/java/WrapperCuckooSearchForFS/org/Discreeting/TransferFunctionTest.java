@@ -0,0 +1,122 @@
+package WrapperCuckooSearchForFS.org.Discreeting;
+
+import org.apache.commons.math3.special.Erf;
+import org.junit.jupiter.api.Test;
+import org.ojalgo.function.special.ErrorFunction;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the threshold comparisons of {@link TransferFunction} against the formulas of the functions they replace
+ */
+class TransferFunctionTest {
+    private static final double[] THRESHOLDS = {0, 2 / Math.sqrt(Math.PI) * Erf.erfInv(0.5), Math.atan(0.5), 1,
+            2 / Math.PI, Math.PI / 2};
+
+    @Test
+    void matchesTheFormulaOnRandomValues() {
+        SplittableRandom rng = new SplittableRandom(11);
+        for (int i = 0; i < 50_000; i++) {
+            assertMatchesTheFormula(rng.nextDouble(-5, 5));
+            assertMatchesTheFormula(rng.nextGaussian() * 100);
+            assertMatchesTheFormula(rng.nextInt(-3, 4) + rng.nextDouble(-3, 3));
+        }
+    }
+
+    @Test
+    void matchesTheFormulaNearTheThresholds() {
+        SplittableRandom rng = new SplittableRandom(12);
+        for (double threshold : THRESHOLDS) {
+            for (double sign : new double[]{-1, 1}) {
+                double centre = sign * threshold;
+                double below = centre;
+                double above = centre;
+                // Every double within a few thousand ulps, then steps out to well beyond the exact band
+                for (int step = 0; step < 5000; step++) {
+                    assertMatchesTheFormula(below);
+                    assertMatchesTheFormula(above);
+                    below = Math.nextDown(below);
+                    above = Math.nextUp(above);
+                }
+                for (double distance = 1e-15; distance < 1e-3; distance *= 1.1) {
+                    assertMatchesTheFormula(centre - distance);
+                    assertMatchesTheFormula(centre + distance);
+                    assertMatchesTheFormula(centre + rng.nextDouble(-distance, distance));
+                }
+            }
+        }
+    }
+
+    @Test
+    void matchesTheFormulaOnTheSpecialValues() {
+        double[] values = {0, -0d, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.MIN_VALUE,
+                -Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, 1e300, -1e300};
+        for (double value : values) {
+            assertMatchesTheFormula(value);
+        }
+        // tan is periodic, V2 must follow it beyond its central branch
+        for (int k = -20; k <= 20; k++) {
+            for (double offset : new double[]{-0.5, -0.46, -0.4, 0, 0.4, 0.46, 0.5, Math.PI / 2 - 1e-12}) {
+                assertMatchesTheFormula(k * Math.PI + offset);
+            }
+        }
+    }
+
+    @Test
+    void applyMatchesTheFunctionOfEveryGene() {
+        int[] genes = {0, 1, 1, 0, 2, -1, 0, 1};
+        for (TransferFunction function : TransferFunction.values()) {
+            for (double offset : new double[]{-2, -1, -0.5, -0.3, 0, 0.3, 0.5, 1, 2}) {
+                int[] expected = new int[genes.length];
+                for (int i = 0; i < genes.length; i++) {
+                    expected[i] = (int) formula(function, genes[i] + offset);
+                }
+                int[] out = new int[genes.length];
+                function.apply(genes, offset, out);
+                assertArrayEquals(expected, out, function + " offset " + offset);
+                int[] inPlace = genes.clone();
+                function.apply(inPlace, offset, inPlace);
+                assertArrayEquals(expected, inPlace);
+                BitGenome binary = BitGenome.of(new int[]{0, 1, 1, 0, 1});
+                BitGenome transferred = new BitGenome(binary.length());
+                function.apply(binary, offset, transferred);
+                for (int i = 0; i < binary.length(); i++) {
+                    assertEquals(formula(function, (binary.get(i) ? 1 : 0) + offset), transferred.get(i) ? 1 : 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    void applyRejectsAShortOutput() {
+        assertThrows(IllegalArgumentException.class, () -> TransferFunction.S1.apply(new int[3], 0, new int[2]));
+    }
+
+    private static void assertMatchesTheFormula(double value) {
+        for (TransferFunction function : TransferFunction.values()) {
+            double expected = formula(function, value);
+            assertEquals(expected, function.applyAsDouble(value), function + " at " + value);
+            assertEquals(expected == 1, function.isSelected(value), function + " at " + value);
+        }
+    }
+
+    /**
+     * This method is used to evaluate the functions as they were before the threshold comparisons
+     */
+    private static double formula(TransferFunction function, double value) {
+        return switch (function) {
+            case V1 -> Math.abs(ErrorFunction.erf(Math.sqrt(Math.PI) / 2 * value)) >= 0.5 ? 1 : 0;
+            case V2 -> Math.abs(Math.tan(value)) >= 0.5 ? 1 : 0;
+            case V3 -> Math.abs(value / Math.abs(1 + Math.pow(value, 2))) >= 0.5 ? 1 : 0;
+            case V4 -> Math.abs(2 / Math.PI * Math.atan(Math.PI / 2 * value)) >= 0.5 ? 1 : 0;
+            case S1 -> 1 / (1 + Math.pow(Math.E, - 2 * value)) >= 0.5 ? 1 : 0;
+            case S2 -> 1 / (1 + Math.pow(Math.E, - value)) >= 0.5 ? 1 : 0;
+            case S3 -> 1 / (1 + Math.pow(Math.E, - value / 2)) >= 0.5 ? 1 : 0;
+            case S4 -> 1 / (1 + Math.pow(Math.E, - value / 3)) >= 0.5 ? 1 : 0;
+        };
+    }
+}
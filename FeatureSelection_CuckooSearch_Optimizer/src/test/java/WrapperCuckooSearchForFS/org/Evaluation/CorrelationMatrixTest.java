@@ -0,0 +1,162 @@
+package WrapperCuckooSearchForFS.org.Evaluation;
+
+import WrapperCuckooSearchForFS.org.Discreeting.BitGenome;
+import org.apache.commons.math3.stat.correlation.PearsonsCorrelation;
+import org.junit.jupiter.api.Test;
+import org.tribuo.ImmutableFeatureMap;
+import org.tribuo.MutableDataset;
+import org.tribuo.classification.Label;
+import org.tribuo.classification.LabelFactory;
+import org.tribuo.impl.ArrayExample;
+import org.tribuo.provenance.SimpleDataSourceProvenance;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the norm of a subset in a {@link CorrelationMatrix} against commons-math, from scratch and through the
+ * incremental accumulator, and the size limit of the pair layout
+ */
+class CorrelationMatrixTest {
+    private static final int FEATURES = 15;
+    // Every stored correlation is rounded to a multiple of 2^-24
+    private static final double TOLERANCE = 1e-6;
+
+    @Test
+    void subsetNormMatchesCommonsMath() {
+        MutableDataset<Label> dataset = dataset(FEATURES, 0, 300, 30);
+        double[][] expected = correlations(dataset);
+        CorrelationMatrix matrix = CorrelationMatrix.compute(matrix(dataset), FitnessFunction.Correlation_Id.PearsonsCorrelation);
+        assertEquals(FEATURES, matrix.size());
+        SplittableRandom rng = new SplittableRandom(31);
+        assertEquals(0, matrix.subsetNorm(new BitGenome(FEATURES)));
+        for (int i = 0; i < 200; i++) {
+            BitGenome subSet = new BitGenome(FEATURES);
+            subSet.randomize(rng);
+            assertEquals(norm(expected, subSet), matrix.subsetNorm(subSet), TOLERANCE, subSet.toString());
+        }
+    }
+
+    @Test
+    void accumulatorMatchesTheNormFromScratch() {
+        MutableDataset<Label> dataset = dataset(FEATURES, 0, 300, 32);
+        double[][] expected = correlations(dataset);
+        CorrelationMatrix matrix = CorrelationMatrix.compute(matrix(dataset), FitnessFunction.Correlation_Id.PearsonsCorrelation);
+        CorrelationMatrix.Accumulator accumulator = matrix.newAccumulator();
+        assertTrue(accumulator.belongsTo(matrix));
+        SplittableRandom rng = new SplittableRandom(33);
+        BitGenome subSet = new BitGenome(FEATURES);
+        for (int step = 0; step < 2000; step++) {
+            if (rng.nextInt(20) == 0) {
+                BitGenome target = new BitGenome(FEATURES);
+                target.randomize(rng);
+                assertEquals(subSet.distance(target), accumulator.distanceTo(target));
+                accumulator.moveTo(target);
+                subSet = target;
+            } else {
+                int feature = rng.nextInt(FEATURES);
+                accumulator.flip(feature);
+                subSet.flip(feature);
+            }
+            assertEquals(subSet.cardinality(), accumulator.count());
+            // The fixed point sums do not depend on the path that reached the subset
+            assertEquals(matrix.subsetNorm(subSet), accumulator.norm(), "step " + step);
+            assertEquals(norm(expected, subSet), accumulator.norm(), TOLERANCE, "step " + step);
+        }
+    }
+
+    @Test
+    void undefinedCorrelationMakesTheNormUndefined() {
+        // Features 0 and 2 have an undefined correlation, such as a constant feature would have
+        CorrelationMatrix matrix = CorrelationMatrix.fromCorrelations(3, new double[]{0.5, Double.NaN, -0.25});
+        assertEquals((1 + 0.5) / 2, matrix.subsetNorm(BitGenome.of(new int[]{1, 1, 0})));
+        assertEquals((1 + 0.25) / 2, matrix.subsetNorm(BitGenome.of(new int[]{0, 1, 1})));
+        assertTrue(Double.isNaN(matrix.subsetNorm(BitGenome.of(new int[]{1, 0, 1}))));
+        CorrelationMatrix.Accumulator accumulator = matrix.newAccumulator();
+        accumulator.moveTo(BitGenome.of(new int[]{1, 1, 1}));
+        assertTrue(Double.isNaN(accumulator.norm()));
+        accumulator.flip(2);
+        assertEquals((1 + 0.5) / 2, accumulator.norm());
+    }
+
+    @Test
+    void pairLayoutRejectsMatricesBeyondAnArray() {
+        assertEquals(0, CorrelationMatrix.checkedPairs(0));
+        assertEquals(0, CorrelationMatrix.checkedPairs(1));
+        assertEquals(FEATURES * (FEATURES - 1) / 2, CorrelationMatrix.checkedPairs(FEATURES));
+        // The largest matrix whose pairs fit in an array, its last pair is the last index
+        int largest = 65_536;
+        int pairs = CorrelationMatrix.checkedPairs(largest);
+        assertEquals((long) largest * (largest - 1) / 2, pairs);
+        assertEquals(pairs - 1, CorrelationMatrix.pairIndex(largest, largest - 2, largest - 1));
+        assertThrows(IllegalArgumentException.class, () -> CorrelationMatrix.checkedPairs(largest + 1));
+        assertThrows(IllegalArgumentException.class, () -> CorrelationMatrix.checkedPairs(Integer.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> CorrelationMatrix.fromCorrelations(4, new double[5]));
+    }
+
+    /**
+     * @return A dataset of two classes whose features share a latent value with random weights, so they are
+     * correlated to various degrees. Only rows {@code from} to {@code to} of the generated rows are kept
+     */
+    static MutableDataset<Label> dataset(int features, int from, int to, long seed) {
+        LabelFactory factory = new LabelFactory();
+        MutableDataset<Label> dataset = new MutableDataset<>(new SimpleDataSourceProvenance("synthetic", factory), factory);
+        String[] names = new String[features];
+        SplittableRandom rng = new SplittableRandom(seed);
+        double[] weights = new double[features];
+        for (int c = 0; c < features; c++) {
+            names[c] = "F" + c;
+            weights[c] = rng.nextDouble(-2, 2);
+        }
+        for (int row = 0; row < to; row++) {
+            double latent = rng.nextGaussian();
+            double[] values = new double[features];
+            for (int c = 0; c < features; c++) {
+                values[c] = 10 + weights[c] * latent + rng.nextGaussian();
+            }
+            if (row >= from) {
+                dataset.add(new ArrayExample<>(factory.generateOutput(latent > 0 ? "A" : "B"), names, values));
+            }
+        }
+        return dataset;
+    }
+
+    static DataMatrix matrix(MutableDataset<Label> dataset) {
+        return DataMatrix.fromDataset(dataset, new ImmutableFeatureMap(dataset.getFeatureMap()));
+    }
+
+    /**
+     * @return The Pearson correlation of every pair of features computed by commons-math
+     */
+    static double[][] correlations(MutableDataset<Label> dataset) {
+        DataMatrix data = matrix(dataset);
+        double[][] columns = new double[data.rows()][data.columns()];
+        for (int r = 0; r < data.rows(); r++) {
+            for (int c = 0; c < data.columns(); c++) {
+                columns[r][c] = data.get(r, c);
+            }
+        }
+        return new PearsonsCorrelation(columns).getCorrelationMatrix().getData();
+    }
+
+    /**
+     * @return The maximum absolute column sum of the sub-matrix of the subset divided by its size
+     */
+    static double norm(double[][] correlations, BitGenome subSet) {
+        if (subSet.cardinality() == 0) {
+            return 0;
+        }
+        double max = 0;
+        for (int j = subSet.nextSetBit(0); j >= 0; j = subSet.nextSetBit(j + 1)) {
+            double sum = 0;
+            for (int i = subSet.nextSetBit(0); i >= 0; i = subSet.nextSetBit(i + 1)) {
+                sum += Math.abs(correlations[i][j]);
+            }
+            max = Math.max(max, sum);
+        }
+        return max / subSet.cardinality();
+    }
+}
@@ -0,0 +1,93 @@
+package WrapperCuckooSearchForFS.org.Evaluation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the allocation free number parser and the memory mapped .CSV loader of {@link DataMatrix}
+ */
+class DataMatrixTest {
+
+    @Test
+    void parseMatchesParseDoubleOnPlainDecimals() {
+        SplittableRandom rng = new SplittableRandom(7);
+        for (int i = 0; i < 200_000; i++) {
+            // Up to 18 significant digits with up to 22 of them after the point
+            long mantissa = rng.nextLong(1_000_000_000_000_000_000L) >>> rng.nextInt(60);
+            String value = BigDecimal.valueOf(rng.nextBoolean() ? -mantissa : mantissa, rng.nextInt(23)).toPlainString();
+            assertParsesAsParseDouble(value);
+        }
+    }
+
+    @Test
+    void parseMatchesParseDoubleOnEveryDoubleNotation() {
+        SplittableRandom rng = new SplittableRandom(8);
+        for (int i = 0; i < 100_000; i++) {
+            double value = Double.longBitsToDouble(rng.nextLong());
+            assertParsesAsParseDouble(Double.toString(value));
+            assertParsesAsParseDouble(Float.toString((float) value));
+            assertParsesAsParseDouble(Double.toString(rng.nextGaussian()));
+        }
+    }
+
+    @Test
+    void parseHandlesTheEdgeCases() {
+        String[] values = {"0", "-0", "-0.0", "+5", "5.", ".5", "-.5", "007", "0.1", "0.30000000000000004",
+                "9007199254740993", "12345678901234567890.5", "1e-3", "1E10", "-2.5e+3", "NaN", "Infinity", "-Infinity",
+                "4.9E-324", "1.7976931348623157E308", "0.000000000000000000001", "123456789.123456789"};
+        for (String value : values) {
+            assertParsesAsParseDouble(value);
+        }
+    }
+
+    @Test
+    void parseIgnoresQuotesAndSpaces() {
+        assertEquals(1.5, parse(" \"1.5\" "));
+        assertEquals(-2, parse("\"-2\""));
+        assertEquals(3e2, parse(" 3e2"));
+    }
+
+    @Test
+    void parseRejectsWhatParseDoubleRejects() {
+        for (String value : new String[]{"", ".", "-", "+", "abc", "1.2.3", "1-2", "--1"}) {
+            assertThrows(NumberFormatException.class, () -> parse(value), value);
+            assertThrows(NumberFormatException.class, () -> Double.parseDouble(value), value);
+        }
+    }
+
+    @Test
+    void fromCSVReadsTheColumnsInFileOrder(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("data.csv");
+        Files.writeString(file, "\"A\",B , C,Class\r\n1,2.5,\"-3\",x\n0.1,1e3,7,y\n", StandardCharsets.US_ASCII);
+        DataMatrix matrix = DataMatrix.fromCSV(file);
+        assertEquals(2, matrix.rows());
+        assertEquals(3, matrix.columns());
+        assertArrayEquals(new double[]{1, 0.1}, matrix.column(0));
+        assertArrayEquals(new double[]{2.5, 1000}, matrix.column(1));
+        assertArrayEquals(new double[]{-3, 7}, matrix.column(2));
+    }
+
+    private static void assertParsesAsParseDouble(String value) {
+        assertEquals(Double.parseDouble(value), parse(value), value);
+    }
+
+    private static double parse(String value) {
+        byte[] token = value.getBytes(StandardCharsets.US_ASCII);
+        // The parser reads a prefix of a reused buffer
+        byte[] buffer = new byte[token.length + 8];
+        System.arraycopy(token, 0, buffer, 0, token.length);
+        buffer[token.length] = '9';
+        return DataMatrix.parse(buffer, token.length);
+    }
+}
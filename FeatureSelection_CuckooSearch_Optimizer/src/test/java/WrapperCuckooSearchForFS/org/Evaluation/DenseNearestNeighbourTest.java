@@ -0,0 +1,81 @@
+package WrapperCuckooSearchForFS.org.Evaluation;
+
+import WrapperCuckooSearchForFS.org.Discreeting.BitGenome;
+import WrapperCuckooSearchForFS.org.Optimizers.CuckooSearchOptimizer;
+import org.junit.jupiter.api.Test;
+import org.tribuo.ImmutableFeatureMap;
+import org.tribuo.MutableDataset;
+import org.tribuo.classification.Label;
+import org.tribuo.classification.LabelFactory;
+import org.tribuo.classification.ensemble.VotingCombiner;
+import org.tribuo.common.nearest.KNNModel;
+import org.tribuo.common.nearest.KNNTrainer;
+import org.tribuo.impl.ArrayExample;
+import org.tribuo.math.distance.L1Distance;
+import org.tribuo.math.neighbour.NeighboursQueryFactoryType;
+import org.tribuo.provenance.SimpleDataSourceProvenance;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the {@link FitnessFunction.Backend#DenseKNN} backend scores every subset as Tribuo's 1-NN under the L1
+ * distance
+ */
+class DenseNearestNeighbourTest {
+
+    @Test
+    void objectivesMatchTheTribuoBackend() {
+        MutableDataset<Label> dataset = dataset(12, 150, 13);
+        ImmutableFeatureMap Fmap = new ImmutableFeatureMap(dataset.getFeatureMap());
+        FitnessFunction tribuo = fitnessFunction(FitnessFunction.Backend.Tribuo);
+        FitnessFunction dense = fitnessFunction(FitnessFunction.Backend.DenseKNN);
+        CuckooSearchOptimizer optimizer = new CuckooSearchOptimizer();
+        SplittableRandom rng = new SplittableRandom(14);
+        for (int i = 0; i < 40; i++) {
+            BitGenome subSet = new BitGenome(Fmap.size());
+            subSet.randomize(rng);
+            // The single feature subsets hold the most ties between neighbours
+            if (i < Fmap.size()) {
+                subSet = new BitGenome(Fmap.size());
+                subSet.flip(i);
+            }
+            assertEquals(tribuo.EvaluateObjectives(optimizer, dataset, Fmap, subSet),
+                    dense.EvaluateObjectives(optimizer, dataset, Fmap, subSet), subSet.toString());
+            assertEquals(tribuo.EvaluateSolution(optimizer, dataset, Fmap, subSet),
+                    dense.EvaluateSolution(optimizer, dataset, Fmap, subSet), subSet.toString());
+        }
+    }
+
+    static FitnessFunction fitnessFunction(FitnessFunction.Backend backend) {
+        KNNTrainer<Label> trainer = new KNNTrainer<>(1, new L1Distance(), 1, new VotingCombiner(), KNNModel.Backend.STREAMS, NeighboursQueryFactoryType.BRUTE_FORCE);
+        FitnessFunction fitnessFunction = new FitnessFunction(trainer, FitnessFunction.Correlation_Id.PearsonsCorrelation);
+        fitnessFunction.setBackend(backend);
+        return fitnessFunction;
+    }
+
+    /**
+     * @return A dataset of three classes that follow the first features, half of the values are rounded so some
+     * neighbours are at equal distances
+     */
+    static MutableDataset<Label> dataset(int features, int rows, long seed) {
+        LabelFactory factory = new LabelFactory();
+        MutableDataset<Label> dataset = new MutableDataset<>(new SimpleDataSourceProvenance("synthetic", factory), factory);
+        String[] names = new String[features];
+        for (int c = 0; c < features; c++) {
+            names[c] = "F" + c;
+        }
+        SplittableRandom rng = new SplittableRandom(seed);
+        for (int row = 0; row < rows; row++) {
+            double[] values = new double[features];
+            for (int c = 0; c < features; c++) {
+                values[c] = c % 2 == 0 ? rng.nextGaussian() : Math.round(rng.nextGaussian() * 2) / 2.0;
+            }
+            double signal = values[0] + values[1] - values[2] + rng.nextGaussian();
+            String label = signal < -0.5 ? "A" : signal < 0.5 ? "B" : "C";
+            dataset.add(new ArrayExample<>(factory.generateOutput(label), names, values));
+        }
+        return dataset;
+    }
+}
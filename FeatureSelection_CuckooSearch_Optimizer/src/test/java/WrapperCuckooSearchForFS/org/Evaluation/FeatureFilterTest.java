@@ -0,0 +1,105 @@
+package WrapperCuckooSearchForFS.org.Evaluation;
+
+import WrapperCuckooSearchForFS.org.Discreeting.TransferFunction;
+import WrapperCuckooSearchForFS.org.Optimizers.CuckooSearchOptimizer;
+import org.junit.jupiter.api.Test;
+import org.tribuo.ImmutableFeatureMap;
+import org.tribuo.MutableDataset;
+import org.tribuo.SelectedFeatureSet;
+import org.tribuo.classification.Label;
+import org.tribuo.classification.LabelFactory;
+import org.tribuo.classification.ensemble.VotingCombiner;
+import org.tribuo.common.nearest.KNNModel;
+import org.tribuo.common.nearest.KNNTrainer;
+import org.tribuo.impl.ArrayExample;
+import org.tribuo.math.distance.L1Distance;
+import org.tribuo.math.neighbour.NeighboursQueryFactoryType;
+import org.tribuo.provenance.SimpleDataSourceProvenance;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that every {@link FeatureFilter} ranks the features the class follows first, and that the pre-filter of the
+ * search only keeps the best scoring ones
+ */
+class FeatureFilterTest {
+    private static final int FEATURES = 10;
+    // The class follows F1 and F4, F7 is constant
+    private static final Set<String> INFORMATIVE = Set.of("F1", "F4");
+    private static final MutableDataset<Label> DATASET = dataset();
+
+    @Test
+    void supervisedFiltersRankTheInformativeFeaturesFirst() {
+        ImmutableFeatureMap Fmap = new ImmutableFeatureMap(DATASET.getFeatureMap());
+        for (FeatureFilter filter : FeatureFilter.values()) {
+            double[] scores = filter.score(DATASET, Fmap);
+            assertEquals(FEATURES, scores.length);
+            assertEquals(0, scores[Fmap.getID("F7")], filter + " of a constant feature");
+            if (filter != FeatureFilter.Variance) {
+                assertEquals(INFORMATIVE, topK(scores, Fmap, INFORMATIVE.size()), filter.toString());
+            }
+        }
+    }
+
+    @Test
+    void preFilterOnlySearchesTheTopFeatures() {
+        ImmutableFeatureMap Fmap = new ImmutableFeatureMap(DATASET.getFeatureMap());
+        for (FeatureFilter filter : List.of(FeatureFilter.MutualInformation, FeatureFilter.Variance)) {
+            for (int topK : new int[]{1, 3, 5}) {
+                Set<String> kept = topK(filter.score(DATASET, Fmap), Fmap, topK);
+                for (boolean biasedPopulation : new boolean[]{false, true}) {
+                    KNNTrainer<Label> trainer = new KNNTrainer<>(1, new L1Distance(), 1, new VotingCombiner(), KNNModel.Backend.STREAMS, NeighboursQueryFactoryType.BRUTE_FORCE);
+                    CuckooSearchOptimizer optimizer = new CuckooSearchOptimizer(trainer, TransferFunction.V2, 8, 2d, 2d, 0.3d, 0.2d, 1.5d, 5, 60);
+                    optimizer.setFitnessBackend(FitnessFunction.Backend.DenseKNN);
+                    optimizer.setPreFilter(filter, topK, biasedPopulation);
+                    SelectedFeatureSet selected = optimizer.select(DATASET);
+                    String run = filter + " top " + topK + " biased " + biasedPopulation;
+                    assertFalse(selected.featureNames().isEmpty(), run);
+                    assertTrue(kept.containsAll(selected.featureNames()), run + " selected " + selected.featureNames() + " out of " + kept);
+                    assertEquals(topK, optimizer.getPopulation()[0].length(), run);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The names of the k best scoring features, lower ids win ties as in the pre-filter
+     */
+    private static Set<String> topK(double[] scores, ImmutableFeatureMap Fmap, int k) {
+        Set<String> names = new HashSet<>();
+        IntStream.range(0, scores.length).boxed().sorted((a, b) -> Double.compare(scores[b], scores[a])).limit(k).
+                forEach(id -> names.add(Fmap.get(id).getName()));
+        return names;
+    }
+
+    /**
+     * @return A dataset of two classes that follow two features, with one constant feature and noise features of
+     * growing variance so the variance filter keeps the noise
+     */
+    private static MutableDataset<Label> dataset() {
+        LabelFactory factory = new LabelFactory();
+        MutableDataset<Label> dataset = new MutableDataset<>(new SimpleDataSourceProvenance("synthetic", factory), factory);
+        String[] names = new String[FEATURES];
+        for (int c = 0; c < FEATURES; c++) {
+            names[c] = "F" + c;
+        }
+        SplittableRandom rng = new SplittableRandom(61);
+        for (int row = 0; row < 200; row++) {
+            double[] values = new double[FEATURES];
+            for (int c = 0; c < FEATURES; c++) {
+                values[c] = c == 7 ? 3 : rng.nextGaussian() * (1 + c);
+            }
+            String label = values[1] / 2 + values[4] / 5 + 0.2 * rng.nextGaussian() > 0 ? "A" : "B";
+            dataset.add(new ArrayExample<>(factory.generateOutput(label), names, values));
+        }
+        return dataset;
+    }
+}
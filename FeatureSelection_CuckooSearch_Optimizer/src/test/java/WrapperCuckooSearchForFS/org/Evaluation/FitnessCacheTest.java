@@ -0,0 +1,103 @@
+package WrapperCuckooSearchForFS.org.Evaluation;
+
+import WrapperCuckooSearchForFS.org.Discreeting.BitGenome;
+import WrapperCuckooSearchForFS.org.Optimizers.CuckooSearchOptimizer;
+import org.junit.jupiter.api.Test;
+import org.tribuo.ImmutableFeatureMap;
+import org.tribuo.MutableDataset;
+import org.tribuo.classification.Label;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the {@link FitnessCache} evicts the least recently used subset, that a capacity of 0 disables it, and
+ * that the fitness function never caches the bound of an aborted evaluation
+ */
+class FitnessCacheTest {
+    private static final BitGenome A = BitGenome.of(new int[]{1, 0, 0, 0});
+    private static final BitGenome B = BitGenome.of(new int[]{0, 1, 0, 0});
+    private static final BitGenome C = BitGenome.of(new int[]{0, 0, 1, 0});
+    private static final BitGenome D = BitGenome.of(new int[]{0, 0, 0, 1});
+
+    @Test
+    void evictsTheLeastRecentlyUsedSubset() {
+        FitnessCache cache = new FitnessCache(3);
+        Objectives a = new Objectives(0.1, 1, 0);
+        Objectives b = new Objectives(0.2, 1, 0);
+        Objectives c = new Objectives(0.3, 1, 0);
+        Objectives d = new Objectives(0.4, 1, 0);
+        cache.put(A, a);
+        cache.put(B, b);
+        cache.put(C, c);
+        // Reading A makes B the least recently used subset
+        assertSame(a, cache.get(A));
+        cache.put(D, d);
+        assertNull(cache.get(B));
+        assertSame(a, cache.get(A));
+        assertSame(c, cache.get(C));
+        assertSame(d, cache.get(D));
+        assertEquals(4, cache.hits());
+        assertEquals(1, cache.misses());
+        cache.clear();
+        assertNull(cache.get(A));
+        assertEquals(0, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    void keysAreCopied() {
+        FitnessCache cache = new FitnessCache(2);
+        BitGenome key = A.copy();
+        Objectives a = new Objectives(0.1, 1, 0);
+        cache.put(key, a);
+        key.flip(1);
+        assertSame(a, cache.get(A));
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    void capacityZeroDisablesTheCache() {
+        FitnessCache cache = new FitnessCache(0);
+        cache.put(A, new Objectives(0.1, 1, 0));
+        assertNull(cache.get(A));
+        assertEquals(0, cache.hits());
+        assertEquals(1, cache.misses());
+
+        MutableDataset<Label> dataset = DenseNearestNeighbourTest.dataset(8, 100, 50);
+        ImmutableFeatureMap Fmap = new ImmutableFeatureMap(dataset.getFeatureMap());
+        FitnessFunction fitnessFunction = DenseNearestNeighbourTest.fitnessFunction(FitnessFunction.Backend.DenseKNN);
+        fitnessFunction.setCacheSize(0);
+        CuckooSearchOptimizer optimizer = new CuckooSearchOptimizer();
+        BitGenome subSet = BitGenome.of(new int[]{1, 1, 0, 0, 1, 0, 0, 0});
+        double score = fitnessFunction.EvaluateSolution(optimizer, dataset, Fmap, subSet);
+        assertEquals(score, fitnessFunction.EvaluateSolution(optimizer, dataset, Fmap, subSet));
+        assertEquals(0, fitnessFunction.getCacheHits());
+        assertEquals(2, fitnessFunction.getCacheMisses());
+        assertEquals(2, fitnessFunction.getEvaluationCount());
+    }
+
+    @Test
+    void abortedScoresAreNeverCached() {
+        MutableDataset<Label> dataset = DenseNearestNeighbourTest.dataset(8, 100, 51);
+        ImmutableFeatureMap Fmap = new ImmutableFeatureMap(dataset.getFeatureMap());
+        FitnessFunction exact = DenseNearestNeighbourTest.fitnessFunction(FitnessFunction.Backend.DenseKNN);
+        FitnessFunction racing = DenseNearestNeighbourTest.fitnessFunction(FitnessFunction.Backend.DenseKNN);
+        racing.setEarlyAbort(true);
+        CuckooSearchOptimizer optimizer = new CuckooSearchOptimizer();
+        BitGenome subSet = BitGenome.of(new int[]{0, 1, 1, 0, 0, 0, 1, 1});
+        double expected = exact.EvaluateSolution(optimizer, dataset, Fmap, subSet);
+
+        // No subset scores above 1, so the racing stops at the first fold
+        double bound = racing.EvaluateSolution(optimizer, dataset, Fmap, subSet, 2);
+        assertTrue(bound < 2 && bound >= expected, "bound " + bound + " of the score " + expected);
+        assertEquals(expected, racing.EvaluateSolution(optimizer, dataset, Fmap, subSet));
+        assertEquals(0, racing.getCacheHits());
+        assertEquals(2, racing.getCacheMisses());
+        // The exact score is cached, even when asked with a bar it cannot beat
+        assertEquals(expected, racing.EvaluateSolution(optimizer, dataset, Fmap, subSet, 2));
+        assertEquals(1, racing.getCacheHits());
+    }
+}
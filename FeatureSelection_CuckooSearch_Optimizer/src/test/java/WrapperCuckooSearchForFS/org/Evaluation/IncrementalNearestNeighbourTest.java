@@ -0,0 +1,94 @@
+package WrapperCuckooSearchForFS.org.Evaluation;
+
+import WrapperCuckooSearchForFS.org.Discreeting.BitGenome;
+import WrapperCuckooSearchForFS.org.Optimizers.CuckooSearchOptimizer;
+import org.junit.jupiter.api.Test;
+import org.tribuo.ImmutableFeatureMap;
+import org.tribuo.MutableDataset;
+import org.tribuo.classification.Label;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the {@link FitnessFunction.Backend#IncrementalKNN} backend scores every subset as Tribuo's 1-NN under
+ * the L1 distance, whatever the distance matrices it derives them from
+ */
+class IncrementalNearestNeighbourTest {
+    private static final int ROWS = 150;
+
+    @Test
+    void objectivesMatchTheTribuoBackendForEveryCacheBudget() {
+        MutableDataset<Label> dataset = DenseNearestNeighbourTest.dataset(12, ROWS, 15);
+        ImmutableFeatureMap Fmap = new ImmutableFeatureMap(dataset.getFeatureMap());
+        List<BitGenome> walk = walk(Fmap.size(), 60, new SplittableRandom(16));
+        FitnessFunction tribuo = DenseNearestNeighbourTest.fitnessFunction(FitnessFunction.Backend.Tribuo);
+        CuckooSearchOptimizer optimizer = new CuckooSearchOptimizer();
+        List<Objectives> expected = new ArrayList<>();
+        for (BitGenome subSet : walk) {
+            expected.add(tribuo.EvaluateObjectives(optimizer, dataset, Fmap, subSet));
+        }
+        // Many cached matrices, a single one that every candidate replaces, and none so the dense scan is used
+        long oneMatrix = IncrementalNearestNeighbour.matrixBytes(ROWS);
+        for (long cacheBytes : new long[]{FitnessFunction.DEFAULT_DISTANCE_CACHE_BYTES, oneMatrix, oneMatrix - 1}) {
+            FitnessFunction incremental = DenseNearestNeighbourTest.fitnessFunction(FitnessFunction.Backend.IncrementalKNN);
+            incremental.setDistanceCacheBytes(cacheBytes);
+            for (int i = 0; i < walk.size(); i++) {
+                assertEquals(expected.get(i), incremental.EvaluateObjectives(optimizer, dataset, Fmap, walk.get(i)),
+                        "budget " + cacheBytes + " step " + i);
+            }
+        }
+    }
+
+    @Test
+    void parallelEvaluationsMatchTheDenseBackend() {
+        MutableDataset<Label> dataset = DenseNearestNeighbourTest.dataset(30, ROWS, 17);
+        ImmutableFeatureMap Fmap = new ImmutableFeatureMap(dataset.getFeatureMap());
+        List<BitGenome> walk = walk(Fmap.size(), 400, new SplittableRandom(18));
+        FitnessFunction dense = DenseNearestNeighbourTest.fitnessFunction(FitnessFunction.Backend.DenseKNN);
+        FitnessFunction incremental = DenseNearestNeighbourTest.fitnessFunction(FitnessFunction.Backend.IncrementalKNN);
+        // Room for a few matrices only so the threads keep evicting each other's
+        incremental.setDistanceCacheBytes(4 * IncrementalNearestNeighbour.matrixBytes(ROWS));
+        CuckooSearchOptimizer optimizer = new CuckooSearchOptimizer();
+        double[] expected = walk.stream().mapToDouble(subSet -> dense.EvaluateSolution(optimizer, dataset, Fmap, subSet)).toArray();
+        double[] actual = new double[walk.size()];
+        IntStream.range(0, walk.size()).parallel().forEach(i -> actual[i] = incremental.EvaluateSolution(optimizer, dataset, Fmap, walk.get(i)));
+        for (int i = 0; i < walk.size(); i++) {
+            assertEquals(expected[i], actual[i], "step " + i);
+        }
+    }
+
+    @Test
+    void fitsRejectsMatricesBeyondAnArray() {
+        assertTrue(IncrementalNearestNeighbour.fits(ROWS, IncrementalNearestNeighbour.matrixBytes(ROWS)));
+        assertFalse(IncrementalNearestNeighbour.fits(ROWS, IncrementalNearestNeighbour.matrixBytes(ROWS) - 1));
+        assertFalse(IncrementalNearestNeighbour.fits(70_000, Long.MAX_VALUE));
+        assertTrue(IncrementalNearestNeighbour.matrixBytes(70_000) > 8L * Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return Subsets that each differ from one of the previous ones in a few features, as the candidates of a search
+     */
+    private static List<BitGenome> walk(int features, int steps, SplittableRandom rng) {
+        List<BitGenome> walk = new ArrayList<>();
+        BitGenome nest = new BitGenome(features);
+        nest.randomize(rng);
+        for (int step = 0; step < steps; step++) {
+            BitGenome candidate = (walk.isEmpty() || rng.nextInt(4) == 0 ? nest : walk.get(rng.nextInt(walk.size()))).copy();
+            for (int flips = rng.nextInt(1, 4); flips > 0; flips--) {
+                candidate.flip(rng.nextInt(features));
+            }
+            if (rng.nextInt(10) == 0) {
+                candidate.randomize(rng);
+            }
+            walk.add(candidate);
+        }
+        return walk;
+    }
+}
@@ -0,0 +1,77 @@
+package WrapperCuckooSearchForFS.org.Evaluation;
+
+import WrapperCuckooSearchForFS.org.Discreeting.BitGenome;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.tribuo.ImmutableFeatureMap;
+import org.tribuo.MutableDataset;
+import org.tribuo.classification.Label;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that {@link PearsonStatistics} merged from batches, and saved and read between them, give the correlation
+ * matrix of a full recompute
+ */
+class PearsonStatisticsTest {
+    private static final int FEATURES = 12;
+    private static final int ROWS = 400;
+    private static final long SEED = 40;
+
+    @Test
+    void mergedBatchesMatchAFullRecompute(@TempDir Path directory) throws IOException {
+        MutableDataset<Label> full = CorrelationMatrixTest.dataset(FEATURES, 0, ROWS, SEED);
+        MutableDataset<Label> first = CorrelationMatrixTest.dataset(FEATURES, 0, 150, SEED);
+        MutableDataset<Label> second = CorrelationMatrixTest.dataset(FEATURES, 150, ROWS, SEED);
+        double[][] expected = CorrelationMatrixTest.correlations(full);
+        CorrelationMatrix recomputed = CorrelationMatrix.compute(CorrelationMatrixTest.matrix(full), FitnessFunction.Correlation_Id.PearsonsCorrelation);
+
+        PearsonStatistics statistics = new PearsonStatistics(new ImmutableFeatureMap(first.getFeatureMap()));
+        statistics.add(first, new ImmutableFeatureMap(first.getFeatureMap()));
+        assertEquals(150, statistics.getCount());
+        Path path = directory.resolve("pearson.statistics");
+        statistics.write(path);
+        PearsonStatistics read = PearsonStatistics.read(path);
+        assertEquals(150, read.getCount());
+
+        statistics.add(second, new ImmutableFeatureMap(second.getFeatureMap()));
+        read.add(CorrelationMatrixTest.matrix(second));
+        assertEquals(ROWS, statistics.getCount());
+        assertEquals(ROWS, read.getCount());
+        CorrelationMatrix merged = statistics.toCorrelationMatrix();
+        CorrelationMatrix resumed = read.toCorrelationMatrix();
+
+        SplittableRandom rng = new SplittableRandom(41);
+        for (int i = 0; i < 200; i++) {
+            BitGenome subSet = new BitGenome(FEATURES);
+            subSet.randomize(rng);
+            // Reading the statistics back loses nothing, so the merge after it is the same
+            assertEquals(merged.subsetNorm(subSet), resumed.subsetNorm(subSet), subSet.toString());
+            assertEquals(recomputed.subsetNorm(subSet), merged.subsetNorm(subSet), 1e-6, subSet.toString());
+            assertEquals(CorrelationMatrixTest.norm(expected, subSet), merged.subsetNorm(subSet), 1e-6, subSet.toString());
+        }
+    }
+
+    @Test
+    void batchOfOtherFeaturesIsRejected() {
+        MutableDataset<Label> dataset = CorrelationMatrixTest.dataset(3, 0, 50, SEED);
+        PearsonStatistics statistics = new PearsonStatistics(new ImmutableFeatureMap(dataset.getFeatureMap()));
+        MutableDataset<Label> other = CorrelationMatrixTest.dataset(4, 0, 50, SEED);
+        assertThrows(IllegalArgumentException.class, () -> statistics.add(CorrelationMatrixTest.matrix(other)));
+        assertThrows(IllegalArgumentException.class, () -> statistics.add(other, new ImmutableFeatureMap(other.getFeatureMap())));
+        assertEquals(0, statistics.getCount());
+    }
+
+    @Test
+    void readRejectsOtherFiles(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("other.bin");
+        Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IOException.class, () -> PearsonStatistics.read(path));
+    }
+}
@@ -0,0 +1,136 @@
+package WrapperCuckooSearchForFS.org.Evaluation;
+
+import WrapperCuckooSearchForFS.org.Discreeting.BitGenome;
+import WrapperCuckooSearchForFS.org.Discreeting.TransferFunction;
+import WrapperCuckooSearchForFS.org.Optimizers.CuckooSearchOptimizer;
+import WrapperCuckooSearchForFS.org.Optimizers.SearchCheckpoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.tribuo.MutableDataset;
+import org.tribuo.classification.Label;
+import org.tribuo.classification.ensemble.VotingCombiner;
+import org.tribuo.common.nearest.KNNModel;
+import org.tribuo.common.nearest.KNNTrainer;
+import org.tribuo.math.distance.L1Distance;
+import org.tribuo.math.neighbour.NeighboursQueryFactoryType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks what the {@link SurrogateModel} learns, that it learns the same for every thread count, and that its budget
+ * only counts the cross validation runs
+ */
+class SurrogateModelTest {
+    private static final MutableDataset<Label> DATASET = DenseNearestNeighbourTest.dataset(12, 150, 19);
+
+    @Test
+    void learnsAnAdditiveScore() {
+        SplittableRandom rng = new SplittableRandom(20);
+        double[] contributions = new double[10];
+        for (int i = 0; i < contributions.length; i++) {
+            contributions[i] = rng.nextDouble(-0.1, 0.1);
+        }
+        SurrogateModel surrogate = new SurrogateModel(50, 2, Long.MAX_VALUE);
+        surrogate.reset(contributions.length);
+        BitGenome empty = new BitGenome(contributions.length);
+        assertFalse(surrogate.rejects(empty, 1e9), "rejects before the warm up");
+        for (int i = 0; i < 5000; i++) {
+            BitGenome subSet = new BitGenome(contributions.length);
+            subSet.randomize(rng);
+            surrogate.update(subSet, score(subSet, contributions));
+        }
+        assertEquals(5000, surrogate.getObservations());
+        for (int i = 0; i < 100; i++) {
+            BitGenome subSet = new BitGenome(contributions.length);
+            subSet.randomize(rng);
+            assertEquals(score(subSet, contributions), surrogate.predict(subSet), 1e-3, subSet.toString());
+        }
+        assertTrue(surrogate.rejects(empty, 1 + score(empty, contributions)));
+        assertFalse(surrogate.rejects(empty, score(empty, contributions) - 0.01));
+        assertFalse(surrogate.rejects(empty, Double.NEGATIVE_INFINITY));
+    }
+
+    @Test
+    void ignoresScoresThatAreNotFinite() {
+        SurrogateModel surrogate = new SurrogateModel();
+        surrogate.reset(4);
+        double[] state = surrogate.getState();
+        surrogate.update(BitGenome.of(new int[]{1, 0, 1, 0}), Double.NEGATIVE_INFINITY);
+        surrogate.update(BitGenome.of(new int[]{1, 0, 1, 0}), Double.NaN);
+        assertArrayEquals(state, surrogate.getState());
+        assertEquals(0, surrogate.getObservations());
+    }
+
+    @Test
+    void setStateRestoresTheModel() {
+        SurrogateModel surrogate = new SurrogateModel(0, 1, Long.MAX_VALUE);
+        surrogate.reset(3);
+        surrogate.update(BitGenome.of(new int[]{1, 1, 0}), 0.7);
+        surrogate.update(BitGenome.of(new int[]{0, 1, 1}), 0.4);
+        SurrogateModel restored = new SurrogateModel(0, 1, Long.MAX_VALUE);
+        restored.setState(surrogate.getState());
+        assertArrayEquals(surrogate.getState(), restored.getState());
+        assertEquals(surrogate.predict(BitGenome.of(new int[]{1, 0, 1})), restored.predict(BitGenome.of(new int[]{1, 0, 1})));
+    }
+
+    @Test
+    void stateIsTheSameForEveryParallelism() {
+        // Racing used to make the surrogate learn an upper bound or an exact score depending on the thread that
+        // filled the cache first, which only shows in some searches
+        for (int seed = 1; seed <= 8; seed++) {
+            SurrogateModel sequential = new SurrogateModel(5, 0.5, Long.MAX_VALUE);
+            AtomicLong screened = new AtomicLong();
+            CuckooSearchOptimizer optimizer = optimizer(sequential, 1, seed);
+            optimizer.addListener(metrics -> screened.addAndGet(metrics.screenedCandidates()));
+            optimizer.select(DATASET);
+            assertTrue(screened.get() > 0, "the surrogate screened no candidate");
+            for (int parallelism : new int[]{4, 8}) {
+                SurrogateModel parallel = new SurrogateModel(5, 0.5, Long.MAX_VALUE);
+                optimizer(parallel, parallelism, seed).select(DATASET);
+                assertArrayEquals(sequential.getState(), parallel.getState(), "seed " + seed + " parallelism " + parallelism);
+            }
+        }
+    }
+
+    @Test
+    void budgetCountsTheCrossValidationRuns(@TempDir Path directory) throws IOException {
+        long budget = 40;
+        for (int parallelism : new int[]{1, 4}) {
+            CuckooSearchOptimizer optimizer = optimizer(new SurrogateModel(10, 0.5, budget), parallelism, 7);
+            Path checkpoint = directory.resolve("search-" + parallelism + ".checkpoint");
+            optimizer.setCheckpoint(checkpoint, 1);
+            optimizer.select(DATASET);
+            SearchCheckpoint last = SearchCheckpoint.read(checkpoint);
+            assertTrue(last.iteration() < 40, "the budget did not end the search");
+            // The candidates already being cross validated when the budget runs out are completed
+            assertTrue(last.evaluations() >= budget && last.evaluations() < budget + parallelism,
+                    last.evaluations() + " cross validation runs with parallelism " + parallelism);
+        }
+    }
+
+    private static CuckooSearchOptimizer optimizer(SurrogateModel surrogate, int parallelism, int seed) {
+        KNNTrainer<Label> trainer = new KNNTrainer<>(1, new L1Distance(), 1, new VotingCombiner(), KNNModel.Backend.STREAMS, NeighboursQueryFactoryType.BRUTE_FORCE);
+        CuckooSearchOptimizer optimizer = new CuckooSearchOptimizer(trainer, TransferFunction.V2, 20, 2d, 2d, 0.3d, 0.2d, 1.5d, 40, seed);
+        optimizer.setFitnessBackend(FitnessFunction.Backend.DenseKNN);
+        optimizer.setEarlyAbort(true);
+        optimizer.setParallelism(parallelism);
+        optimizer.setSurrogate(surrogate);
+        return optimizer;
+    }
+
+    private static double score(BitGenome subSet, double[] contributions) {
+        double score = 0.5;
+        for (int i = subSet.nextSetBit(0); i >= 0; i = subSet.nextSetBit(i + 1)) {
+            score += contributions[i];
+        }
+        return score;
+    }
+}
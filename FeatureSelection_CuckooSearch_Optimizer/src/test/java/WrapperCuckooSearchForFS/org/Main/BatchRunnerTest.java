@@ -0,0 +1,91 @@
+package WrapperCuckooSearchForFS.org.Main;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a {@link BatchRunner} can run several sweeps, and that a failure outside the searches is thrown rather
+ * than lost in its threads
+ */
+class BatchRunnerTest {
+
+    @Test
+    void runsSeveralSweeps(@TempDir Path directory) throws IOException, InterruptedException {
+        List<BatchRunner.Job> jobs = jobs(directory);
+        try (BatchRunner runner = new BatchRunner(2)) {
+            for (int sweep = 0; sweep < 2; sweep++) {
+                StringWriter output = new StringWriter();
+                runner.run(jobs, 2, new BatchRunner.Report(output, true));
+                List<String> lines = output.toString().lines().toList();
+                assertEquals(jobs.size(), lines.size(), "sweep " + sweep);
+                assertTrue(lines.stream().allMatch(line -> line.contains("\"status\":\"ok\"")), output.toString());
+            }
+        }
+    }
+
+    @Test
+    void reportFailureIsThrown(@TempDir Path directory) throws IOException, InterruptedException {
+        List<BatchRunner.Job> jobs = jobs(directory);
+        Writer broken = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void flush() { }
+
+            @Override
+            public void close() { }
+        };
+        try (BatchRunner runner = new BatchRunner(2)) {
+            UncheckedIOException thrown = assertThrows(UncheckedIOException.class,
+                    () -> runner.run(jobs, 2, new BatchRunner.Report(broken, true)));
+            assertEquals("disk full", thrown.getCause().getMessage());
+            // Every job failed the same way, the others are kept with the first one
+            assertEquals(jobs.size() - 1, thrown.getSuppressed().length);
+        }
+    }
+
+    @Test
+    void closedRunnerRejectsJobs(@TempDir Path directory) throws IOException {
+        List<BatchRunner.Job> jobs = jobs(directory);
+        BatchRunner runner = new BatchRunner(1);
+        runner.close();
+        assertThrows(IllegalStateException.class, () -> runner.run(jobs, 1, new BatchRunner.Report(new StringWriter(), true)));
+    }
+
+    /**
+     * @return Two short searches over a small .CSV file
+     */
+    private static List<BatchRunner.Job> jobs(Path directory) throws IOException {
+        StringBuilder csv = new StringBuilder("F0,F1,F2,F3,Class\n");
+        SplittableRandom rng = new SplittableRandom(21);
+        for (int row = 0; row < 60; row++) {
+            double[] values = {rng.nextGaussian(), rng.nextGaussian(), rng.nextGaussian(), rng.nextGaussian()};
+            csv.append(String.format(Locale.ROOT, "%f,%f,%f,%f,%s%n", values[0], values[1], values[2], values[3],
+                    values[0] + values[2] > 0 ? "A" : "B"));
+        }
+        Path data = directory.resolve("data.csv");
+        Files.writeString(data, csv, StandardCharsets.UTF_8);
+        Path spec = directory.resolve("jobs.txt");
+        Files.writeString(spec, "dataset=" + data + " population=6 iterations=2 backend=DenseKNN transfer=V1,V2\n",
+                StandardCharsets.UTF_8);
+        return BatchRunner.readSpec(spec);
+    }
+}
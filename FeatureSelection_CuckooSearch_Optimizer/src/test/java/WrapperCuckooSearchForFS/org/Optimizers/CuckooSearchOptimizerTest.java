@@ -0,0 +1,69 @@
+package WrapperCuckooSearchForFS.org.Optimizers;
+
+import WrapperCuckooSearchForFS.org.Discreeting.TransferFunction;
+import WrapperCuckooSearchForFS.org.Evaluation.FitnessFunction;
+import WrapperCuckooSearchForFS.org.Evaluation.SurrogateModel;
+import org.junit.jupiter.api.Test;
+import org.tribuo.MutableDataset;
+import org.tribuo.SelectedFeatureSet;
+import org.tribuo.classification.Label;
+import org.tribuo.classification.ensemble.VotingCombiner;
+import org.tribuo.common.nearest.KNNModel;
+import org.tribuo.common.nearest.KNNTrainer;
+import org.tribuo.math.distance.L1Distance;
+import org.tribuo.math.neighbour.NeighboursQueryFactoryType;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that a search gives the same result for a given seed whatever the number of threads that evaluate its
+ * candidates
+ */
+class CuckooSearchOptimizerTest {
+    private static final MutableDataset<Label> DATASET = SearchCheckpointTest.dataset();
+
+    @Test
+    void resultDoesNotDependOnTheParallelism() {
+        for (int seed = 1; seed <= 8; seed++) {
+            assertSameForEveryParallelism(FitnessFunction.Backend.DenseKNN, false, seed);
+            assertSameForEveryParallelism(FitnessFunction.Backend.DenseKNN, true, seed);
+        }
+    }
+
+    @Test
+    void resultDoesNotDependOnTheParallelismWithTribuo() {
+        assertSameForEveryParallelism(FitnessFunction.Backend.Tribuo, true, 5);
+    }
+
+    /**
+     * This method is used to run the same search with 1, 4 and 8 threads, with the fitness cache, racing and
+     * optionally the surrogate enabled
+     */
+    private static void assertSameForEveryParallelism(FitnessFunction.Backend backend, boolean withSurrogate, int seed) {
+        CuckooSearchOptimizer sequential = optimizer(backend, withSurrogate, seed, 1);
+        SelectedFeatureSet expected = sequential.select(DATASET);
+        for (int parallelism : new int[]{4, 8}) {
+            CuckooSearchOptimizer parallel = optimizer(backend, withSurrogate, seed, parallelism);
+            SelectedFeatureSet actual = parallel.select(DATASET);
+            String run = backend + " surrogate " + withSurrogate + " seed " + seed + " parallelism " + parallelism;
+            assertEquals(expected.featureNames(), actual.featureNames(), run);
+            assertEquals(sequential.getBestScore(), parallel.getBestScore(), run);
+            assertArrayEquals(sequential.getPopulation(), parallel.getPopulation(), run);
+        }
+    }
+
+    private static CuckooSearchOptimizer optimizer(FitnessFunction.Backend backend, boolean withSurrogate, int seed, int parallelism) {
+        KNNTrainer<Label> trainer = new KNNTrainer<>(1, new L1Distance(), 1, new VotingCombiner(), KNNModel.Backend.STREAMS, NeighboursQueryFactoryType.BRUTE_FORCE);
+        CuckooSearchOptimizer optimizer = new CuckooSearchOptimizer(trainer, TransferFunction.V2, 20, 2d, 2d, 0.3d, 0.2d, 1.5d, 40, seed);
+        optimizer.setFitnessBackend(backend);
+        optimizer.setParallelism(parallelism);
+        optimizer.setEarlyAbort(true);
+        // A small cache so the threads also race on its evictions
+        optimizer.setFitnessCacheSize(32);
+        if (withSurrogate) {
+            optimizer.setSurrogate(new SurrogateModel(5, 0.5, Long.MAX_VALUE));
+        }
+        return optimizer;
+    }
+}
@@ -0,0 +1,75 @@
+package WrapperCuckooSearchForFS.org.Optimizers;
+
+import WrapperCuckooSearchForFS.org.Discreeting.BitGenome;
+import WrapperCuckooSearchForFS.org.Discreeting.TransferFunction;
+import WrapperCuckooSearchForFS.org.Evaluation.FitnessFunction;
+import WrapperCuckooSearchForFS.org.Optimizers.CuckooSearchOptimizer.CuckooSearchFeatureSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.tribuo.MutableDataset;
+import org.tribuo.classification.Label;
+import org.tribuo.classification.ensemble.VotingCombiner;
+import org.tribuo.common.nearest.KNNModel;
+import org.tribuo.common.nearest.KNNTrainer;
+import org.tribuo.math.distance.L1Distance;
+import org.tribuo.math.neighbour.NeighboursQueryFactoryType;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that nests travel around the ring of a {@link FileMigration}, and that an island that stops early does not
+ * keep its neighbour waiting
+ */
+class FileMigrationTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @Test
+    void endMarkerReleasesTheNextIsland(@TempDir Path directory) throws Exception {
+        FileMigration first = new FileMigration(directory, 0, 2, TIMEOUT);
+        FileMigration second = new FileMigration(directory, 1, 2, TIMEOUT);
+        List<CuckooSearchFeatureSet> fromFirst = List.of(new CuckooSearchFeatureSet(BitGenome.of(new int[]{1, 0, 1}), 0.75));
+        List<CuckooSearchFeatureSet> fromSecond = List.of(new CuckooSearchFeatureSet(BitGenome.of(new int[]{0, 1, 1}), 0.5));
+        CompletableFuture<List<CuckooSearchFeatureSet>> received = CompletableFuture.supplyAsync(() -> first.exchange(1, fromFirst));
+        assertEquals(fromFirst, second.exchange(1, fromSecond));
+        assertEquals(fromSecond, received.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS));
+
+        first.finish(1);
+        long start = System.nanoTime();
+        assertEquals(List.of(), second.exchange(2, fromSecond));
+        assertTrue(System.nanoTime() - start < TIMEOUT.toNanos() / 2, "the island waited for the timeout");
+    }
+
+    @Test
+    void islandOutlivesItsStoppedNeighbour(@TempDir Path directory) throws Exception {
+        MutableDataset<Label> dataset = SearchCheckpointTest.dataset();
+        AtomicInteger earlyIterations = new AtomicInteger();
+        CuckooSearchOptimizer early = optimizer(3, 1, earlyIterations);
+        early.setMigration(new FileMigration(directory, 0, 2, TIMEOUT), 1, 2);
+        AtomicInteger lateIterations = new AtomicInteger();
+        CuckooSearchOptimizer late = optimizer(10, 2, lateIterations);
+        late.setMigration(new FileMigration(directory, 1, 2, TIMEOUT), 1, 2);
+        CompletableFuture<Void> earlyEnd = CompletableFuture.runAsync(() -> early.select(dataset));
+        long start = System.nanoTime();
+        late.select(dataset);
+        earlyEnd.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+        assertTrue(System.nanoTime() - start < TIMEOUT.toNanos() / 2, "the island waited for the timeout");
+        assertEquals(3, earlyIterations.get());
+        assertEquals(10, lateIterations.get());
+    }
+
+    private static CuckooSearchOptimizer optimizer(int maxIteration, int seed, AtomicInteger iterations) {
+        KNNTrainer<Label> trainer = new KNNTrainer<>(1, new L1Distance(), 1, new VotingCombiner(), KNNModel.Backend.STREAMS, NeighboursQueryFactoryType.BRUTE_FORCE);
+        CuckooSearchOptimizer optimizer = new CuckooSearchOptimizer(trainer, TransferFunction.V2, 8, 2d, 2d, 0.3d, 0.2d, 1.5d, maxIteration, seed);
+        optimizer.setFitnessBackend(FitnessFunction.Backend.DenseKNN);
+        optimizer.addListener(metrics -> iterations.incrementAndGet());
+        return optimizer;
+    }
+}
@@ -0,0 +1,98 @@
+package WrapperCuckooSearchForFS.org.Optimizers;
+
+import WrapperCuckooSearchForFS.org.Discreeting.BitGenome;
+import WrapperCuckooSearchForFS.org.Evaluation.Objectives;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the {@link ParetoArchive} against a brute force filter of every offered subset
+ */
+class ParetoArchiveTest {
+    private static final int FEATURES = 6;
+
+    @Test
+    void frontMatchesTheBruteForceFilter() {
+        SplittableRandom rng = new SplittableRandom(5);
+        for (int trial = 0; trial < 200; trial++) {
+            ParetoArchive archive = new ParetoArchive(FEATURES);
+            List<ParetoArchive.Entry> offered = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                BitGenome subSet = new BitGenome(FEATURES);
+                subSet.randomize(rng);
+                // Coarse objectives so ties and dominated subsets are frequent
+                Objectives objectives = new Objectives(rng.nextInt(5) / 4.0, subSet.cardinality(), rng.nextInt(4) / 3.0);
+                offered.add(new ParetoArchive.Entry(subSet, objectives));
+                archive.add(subSet, objectives);
+            }
+            assertEquals(bruteForce(offered), archive.front(), "trial " + trial);
+        }
+    }
+
+    @Test
+    void keepsTheArchivedSubsetOnTies() {
+        ParetoArchive archive = new ParetoArchive(FEATURES);
+        BitGenome first = BitGenome.of(new int[]{0, 0, 1, 1, 0, 0});
+        BitGenome second = BitGenome.of(new int[]{1, 1, 0, 0, 0, 0});
+        Objectives objectives = new Objectives(0.75, 2, 0.25);
+        assertTrue(archive.add(first, objectives));
+        assertFalse(archive.add(second, objectives));
+        assertEquals(List.of(new ParetoArchive.Entry(first, objectives)), archive.front());
+    }
+
+    @Test
+    void rejectsNaNObjectives() {
+        ParetoArchive archive = new ParetoArchive(FEATURES);
+        BitGenome archived = BitGenome.of(new int[]{0, 0, 1, 1, 0, 0});
+        BitGenome undefined = BitGenome.of(new int[]{1, 1, 0, 0, 0, 0});
+        Objectives objectives = new Objectives(0.75, 2, 0.25);
+        assertTrue(archive.add(archived, objectives));
+        assertFalse(archive.add(undefined, new Objectives(0.75, 2, Double.NaN)));
+        assertFalse(archive.add(undefined, new Objectives(Double.NaN, 2, 0.25)));
+        assertFalse(new ParetoArchive(FEATURES).add(undefined, new Objectives(0.75, 2, Double.NaN)));
+        assertEquals(List.of(new ParetoArchive.Entry(archived, objectives)), archive.front());
+    }
+
+    @Test
+    void frontHoldsCopiesOfTheSubsets() {
+        ParetoArchive archive = new ParetoArchive(FEATURES);
+        BitGenome subSet = BitGenome.of(new int[]{0, 1, 0, 0, 0, 0});
+        archive.add(subSet, new Objectives(0.5, 1, 0));
+        subSet.flip(0);
+        ParetoArchive.Entry entry = archive.front().get(0);
+        assertEquals(BitGenome.of(new int[]{0, 1, 0, 0, 0, 0}), entry.subSet());
+        entry.subSet().flip(2);
+        assertEquals(1, archive.front().get(0).subSet().cardinality());
+        assertEquals(1, archive.size());
+    }
+
+    /**
+     * This method is used to keep the offered subsets that no other one dominates, of equal objectives the first
+     * offered one, sorted as {@link ParetoArchive#front()}
+     */
+    private static List<ParetoArchive.Entry> bruteForce(List<ParetoArchive.Entry> offered) {
+        List<ParetoArchive.Entry> front = new ArrayList<>();
+        for (int i = 0; i < offered.size(); i++) {
+            Objectives candidate = offered.get(i).objectives();
+            boolean kept = true;
+            for (int j = 0; j < offered.size() && kept; j++) {
+                Objectives other = offered.get(j).objectives();
+                kept = !other.dominates(candidate) && !(j < i && other.equals(candidate));
+            }
+            if (kept) {
+                front.add(offered.get(i));
+            }
+        }
+        front.sort(Comparator.comparingInt((ParetoArchive.Entry entry) -> entry.objectives().featureCount()).
+                thenComparing(entry -> -entry.objectives().accuracy()));
+        return front;
+    }
+}
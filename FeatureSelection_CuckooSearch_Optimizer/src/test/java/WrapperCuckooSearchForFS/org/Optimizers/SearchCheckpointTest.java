@@ -0,0 +1,162 @@
+package WrapperCuckooSearchForFS.org.Optimizers;
+
+import WrapperCuckooSearchForFS.org.Discreeting.BitGenome;
+import WrapperCuckooSearchForFS.org.Discreeting.TransferFunction;
+import WrapperCuckooSearchForFS.org.Evaluation.FitnessFunction;
+import WrapperCuckooSearchForFS.org.Evaluation.Objectives;
+import WrapperCuckooSearchForFS.org.Evaluation.SurrogateModel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.tribuo.MutableDataset;
+import org.tribuo.SelectedFeatureSet;
+import org.tribuo.classification.Label;
+import org.tribuo.classification.LabelFactory;
+import org.tribuo.classification.ensemble.VotingCombiner;
+import org.tribuo.common.nearest.KNNModel;
+import org.tribuo.common.nearest.KNNTrainer;
+import org.tribuo.impl.ArrayExample;
+import org.tribuo.math.distance.L1Distance;
+import org.tribuo.math.neighbour.NeighboursQueryFactoryType;
+import org.tribuo.provenance.SimpleDataSourceProvenance;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that a {@link SearchCheckpoint} survives a write and a read, and that a search resumed from it ends as the
+ * uninterrupted search
+ */
+class SearchCheckpointTest {
+    private static final int FEATURES = 12;
+
+    @Test
+    void writeThenReadGivesTheSameState(@TempDir Path directory) throws IOException {
+        SplittableRandom rng = new SplittableRandom(9);
+        BitGenome[] population = new BitGenome[5];
+        double[] scores = new double[population.length];
+        for (int nest = 0; nest < population.length; nest++) {
+            population[nest] = new BitGenome(FEATURES);
+            population[nest].randomize(rng);
+            scores[nest] = rng.nextDouble();
+        }
+        BitGenome frontSubset = BitGenome.of(new int[]{1, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 1});
+        SearchCheckpoint written = new SearchCheckpoint(7, rng.nextLong(), population, scores, population[2], scores[2],
+                new double[]{0.5, -1, 2}, new double[]{0.1, 0.2, 0.3}, 42,
+                List.of(new ParetoArchive.Entry(frontSubset, new Objectives(0.8, 3, 0.25))));
+        Path path = directory.resolve("search.checkpoint");
+        written.write(path);
+        SearchCheckpoint read = SearchCheckpoint.read(path);
+        assertEquals(written.iteration(), read.iteration());
+        assertEquals(written.stateSeed(), read.stateSeed());
+        assertArrayEquals(written.population(), read.population());
+        assertArrayEquals(written.scores(), read.scores());
+        assertEquals(written.best(), read.best());
+        assertEquals(written.bestScore(), read.bestScore());
+        assertArrayEquals(written.surrogateState(), read.surrogateState());
+        assertArrayEquals(written.bestScores(), read.bestScores());
+        assertEquals(written.evaluations(), read.evaluations());
+        assertEquals(written.paretoFront(), read.paretoFront());
+        try (var files = Files.list(directory)) {
+            assertEquals(List.of(path), files.toList(), "the temporary file is left behind");
+        }
+    }
+
+    @Test
+    void readRejectsOtherFiles(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("other.bin");
+        Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IOException.class, () -> SearchCheckpoint.read(path));
+    }
+
+    @Test
+    void readRejectsOtherVersions(@TempDir Path directory) throws IOException {
+        BitGenome nest = BitGenome.of(new int[]{1, 0, 1});
+        Path path = directory.resolve("search.checkpoint");
+        new SearchCheckpoint(1, 2, new BitGenome[]{nest}, new double[]{0.5}, nest, 0.5, new double[0],
+                new double[]{0.5}, 3, List.of()).write(path);
+        byte[] written = Files.readAllBytes(path);
+        assertEquals(1, SearchCheckpoint.read(path).iteration());
+        for (byte version : new byte[]{0, 2, 4, -1}) {
+            // The version follows the 4 bytes of the magic number
+            written[4] = version;
+            Files.write(path, written);
+            assertThrows(IOException.class, () -> SearchCheckpoint.read(path), "version " + version);
+        }
+    }
+
+    @Test
+    void resumedSearchEndsAsTheUninterruptedOne(@TempDir Path directory) throws IOException {
+        assertResumeMatches(directory, false);
+    }
+
+    @Test
+    void resumedMultiObjectiveSearchEndsWithTheSameFront(@TempDir Path directory) throws IOException {
+        assertResumeMatches(directory, true);
+    }
+
+    private static void assertResumeMatches(Path directory, boolean multiObjective) throws IOException {
+        MutableDataset<Label> dataset = dataset();
+        CuckooSearchOptimizer uninterrupted = optimizer(8, multiObjective, 2);
+        SelectedFeatureSet expected = uninterrupted.select(dataset);
+
+        Path checkpoint = directory.resolve("search.checkpoint");
+        CuckooSearchOptimizer interrupted = optimizer(3, multiObjective, 1);
+        interrupted.setCheckpoint(checkpoint, 3);
+        interrupted.select(dataset);
+        assertEquals(3, SearchCheckpoint.read(checkpoint).iteration());
+        CuckooSearchOptimizer resumed = optimizer(8, multiObjective, 3);
+        SelectedFeatureSet actual = resumed.resume(dataset, checkpoint);
+
+        assertEquals(expected.featureNames(), actual.featureNames());
+        assertEquals(uninterrupted.getBestScore(), resumed.getBestScore());
+        assertArrayEquals(uninterrupted.getPopulation(), resumed.getPopulation());
+        assertEquals(uninterrupted.getParetoFront().stream().map(CuckooSearchOptimizer.ParetoFeatureSet::objectives).toList(),
+                resumed.getParetoFront().stream().map(CuckooSearchOptimizer.ParetoFeatureSet::objectives).toList());
+        assertEquals(multiObjective, !resumed.getParetoFront().isEmpty());
+        assertFalse(Double.isNaN(resumed.getBestScore()));
+    }
+
+    private static CuckooSearchOptimizer optimizer(int maxIteration, boolean multiObjective, int parallelism) {
+        KNNTrainer<Label> trainer = new KNNTrainer<>(1, new L1Distance(), 1, new VotingCombiner(), KNNModel.Backend.STREAMS, NeighboursQueryFactoryType.BRUTE_FORCE);
+        CuckooSearchOptimizer optimizer = new CuckooSearchOptimizer(trainer, TransferFunction.V2, 8, 2d, 2d, 0.3d, 0.2d, 1.5d, maxIteration, 12345);
+        optimizer.setFitnessBackend(FitnessFunction.Backend.DenseKNN);
+        optimizer.setParallelism(parallelism);
+        if (multiObjective) {
+            optimizer.setMultiObjective(true);
+        } else {
+            optimizer.setEarlyAbort(true);
+            optimizer.setSurrogate(new SurrogateModel(10, 0.5, Long.MAX_VALUE));
+        }
+        return optimizer;
+    }
+
+    /**
+     * @return A dataset whose class follows two of its features
+     */
+    static MutableDataset<Label> dataset() {
+        LabelFactory factory = new LabelFactory();
+        MutableDataset<Label> dataset = new MutableDataset<>(new SimpleDataSourceProvenance("synthetic", factory), factory);
+        String[] names = new String[FEATURES];
+        for (int c = 0; c < FEATURES; c++) {
+            names[c] = "F" + c;
+        }
+        SplittableRandom rng = new SplittableRandom(10);
+        for (int row = 0; row < 120; row++) {
+            double[] values = new double[FEATURES];
+            for (int c = 0; c < FEATURES; c++) {
+                values[c] = rng.nextGaussian();
+            }
+            String label = values[0] + values[3] + 0.5 * rng.nextGaussian() > 0 ? "A" : "B";
+            dataset.add(new ArrayExample<>(factory.generateOutput(label), names, values));
+        }
+        return dataset;
+    }
+}
@@ -0,0 +1,101 @@
+package WrapperCuckooSearchForFS.org.Optimizers;
+
+import WrapperCuckooSearchForFS.org.Discreeting.TransferFunction;
+import WrapperCuckooSearchForFS.org.Evaluation.FitnessFunction;
+import org.junit.jupiter.api.Test;
+import org.tribuo.classification.Label;
+import org.tribuo.classification.ensemble.VotingCombiner;
+import org.tribuo.common.nearest.KNNModel;
+import org.tribuo.common.nearest.KNNTrainer;
+import org.tribuo.math.distance.L1Distance;
+import org.tribuo.math.neighbour.NeighboursQueryFactoryType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks when every {@link StoppingPolicy} fires, and that a search counts the evaluations the fitness cache answers
+ * as free
+ */
+class StoppingPolicyTest {
+
+    @Test
+    void stagnationLooksAtTheLastGenerations() {
+        SearchProgress progress = progress(new double[]{0.5, 0.6, 0.6, 0.6}, 0);
+        assertTrue(StoppingPolicy.stagnation(2).shouldStop(progress));
+        assertFalse(StoppingPolicy.stagnation(3).shouldStop(progress));
+        // Not enough generations yet to tell
+        assertFalse(StoppingPolicy.stagnation(4).shouldStop(progress));
+        assertThrows(IllegalArgumentException.class, () -> StoppingPolicy.stagnation(0));
+    }
+
+    @Test
+    void minimumImprovementComparesWithEpsilon() {
+        SearchProgress progress = progress(new double[]{0.5, 0.6, 0.62, 0.64}, 0);
+        assertTrue(StoppingPolicy.minimumImprovement(0.05, 2).shouldStop(progress));
+        assertFalse(StoppingPolicy.minimumImprovement(0.03, 2).shouldStop(progress));
+        assertFalse(StoppingPolicy.minimumImprovement(0.05, 3).shouldStop(progress));
+        assertFalse(StoppingPolicy.minimumImprovement(1, 4).shouldStop(progress));
+        assertThrows(IllegalArgumentException.class, () -> StoppingPolicy.minimumImprovement(0.01, 0));
+    }
+
+    @Test
+    void timeBudgetSkipsAGenerationThatWouldNotFinish() {
+        StoppingPolicy policy = StoppingPolicy.timeBudget(Duration.ofSeconds(10));
+        assertEquals(Duration.ofSeconds(10).toNanos(), policy.budgetNanos());
+        long second = Duration.ofSeconds(1).toNanos();
+        assertFalse(policy.shouldStop(new SearchProgress(1, new double[]{0.5}, 0, 8 * second, 2 * second)));
+        assertTrue(policy.shouldStop(new SearchProgress(1, new double[]{0.5}, 0, 8 * second, 3 * second)));
+    }
+
+    @Test
+    void anyOfStopsWithTheFirstPolicyAndKeepsTheSmallestBudget() {
+        StoppingPolicy policy = StoppingPolicy.anyOf(StoppingPolicy.timeBudget(Duration.ofSeconds(5)),
+                StoppingPolicy.maxEvaluations(100), StoppingPolicy.timeBudget(Duration.ofSeconds(2)));
+        assertEquals(Duration.ofSeconds(2).toNanos(), policy.budgetNanos());
+        assertFalse(policy.shouldStop(progress(new double[]{0.5}, 99)));
+        assertTrue(policy.shouldStop(progress(new double[]{0.5}, 100)));
+        assertTrue(policy.shouldStop(new SearchProgress(1, new double[]{0.5}, 0, Duration.ofSeconds(3).toNanos(), 0)));
+        assertEquals(Long.MAX_VALUE, StoppingPolicy.anyOf(StoppingPolicy.stagnation(2)).budgetNanos());
+        assertEquals(Long.MAX_VALUE, StoppingPolicy.anyOf().budgetNanos());
+        assertFalse(StoppingPolicy.anyOf().shouldStop(progress(new double[]{0.5, 0.5, 0.5}, 1000)));
+    }
+
+    @Test
+    void maxEvaluationsCountsTheCacheMissesOnly() {
+        long limit = 150;
+        List<SearchProgress> checks = new ArrayList<>();
+        List<IterationMetrics> generations = new ArrayList<>();
+        KNNTrainer<Label> trainer = new KNNTrainer<>(1, new L1Distance(), 1, new VotingCombiner(), KNNModel.Backend.STREAMS, NeighboursQueryFactoryType.BRUTE_FORCE);
+        CuckooSearchOptimizer optimizer = new CuckooSearchOptimizer(trainer, TransferFunction.V2, 8, 2d, 2d, 0.3d, 0.2d, 1.5d, 100, 3);
+        optimizer.setFitnessBackend(FitnessFunction.Backend.DenseKNN);
+        optimizer.setStoppingPolicy(progress -> {
+            checks.add(progress);
+            return StoppingPolicy.maxEvaluations(limit).shouldStop(progress);
+        });
+        optimizer.addListener(generations::add);
+        optimizer.select(SearchCheckpointTest.dataset());
+
+        assertEquals(generations.size() + 1, checks.size());
+        long cacheHits = 0;
+        for (int i = 0; i < generations.size(); i++) {
+            IterationMetrics generation = generations.get(i);
+            cacheHits += generation.cacheHits();
+            assertEquals(generation.evaluations() - generation.cacheHits(),
+                    checks.get(i + 1).evaluations() - checks.get(i).evaluations(), "generation " + (i + 1));
+            assertTrue(checks.get(i).evaluations() < limit, "the search went on past the limit");
+        }
+        assertTrue(cacheHits > 0, "no candidate was answered by the cache");
+        assertTrue(checks.get(checks.size() - 1).evaluations() >= limit, "the search ended before the limit");
+    }
+
+    private static SearchProgress progress(double[] bestScores, long evaluations) {
+        return new SearchProgress(bestScores.length - 1, bestScores, evaluations, 0, 0);
+    }
+}